@@ -0,0 +1,102 @@
+package com.horstmann.violet.framework.graphics;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+
+/**
+ * Tells how much detail diagram elements draw depending on the zoom factor. Below the node threshold, texts are drawn
+ * as bars and separators are left out. Below the edge threshold, edges are drawn as plain solid lines without
+ * arrowheads.
+ *
+ * Elements only simplify their drawing on graphics contexts carrying a level of detail in {@link #KEY_LEVEL_OF_DETAIL},
+ * so exports and prints are always complete.
+ */
+public class LevelOfDetail
+{
+    /**
+     * @param nodeZoom zoom factor below which nodes are simplified
+     * @param edgeZoom zoom factor below which edges are simplified
+     */
+    public LevelOfDetail(double nodeZoom, double edgeZoom)
+    {
+        this.nodeZoom = nodeZoom;
+        this.edgeZoom = edgeZoom;
+    }
+
+    /**
+     * @param zoom zoom factor
+     * @return true if nodes are simplified at this zoom factor
+     */
+    public boolean isNodeSimplified(double zoom)
+    {
+        return zoom < this.nodeZoom;
+    }
+
+    /**
+     * @param zoom zoom factor
+     * @return true if edges are simplified at this zoom factor
+     */
+    public boolean isEdgeSimplified(double zoom)
+    {
+        return zoom < this.edgeZoom;
+    }
+
+    /**
+     * @param graphics graphics context
+     * @return true if nodes are simplified when drawn on this graphics context
+     */
+    public static boolean simplifiesNodes(Graphics2D graphics)
+    {
+        Object levelOfDetail = graphics.getRenderingHint(KEY_LEVEL_OF_DETAIL);
+        return levelOfDetail instanceof LevelOfDetail
+                && ((LevelOfDetail) levelOfDetail).isNodeSimplified(getZoom(graphics));
+    }
+
+    /**
+     * @param graphics graphics context
+     * @return true if edges are simplified when drawn on this graphics context
+     */
+    public static boolean simplifiesEdges(Graphics2D graphics)
+    {
+        Object levelOfDetail = graphics.getRenderingHint(KEY_LEVEL_OF_DETAIL);
+        return levelOfDetail instanceof LevelOfDetail
+                && ((LevelOfDetail) levelOfDetail).isEdgeSimplified(getZoom(graphics));
+    }
+
+    /**
+     * @param graphics graphics context
+     * @return number of device pixels a graph unit takes
+     */
+    private static double getZoom(Graphics2D graphics)
+    {
+        AffineTransform transform = graphics.getTransform();
+        return Math.sqrt(Math.abs(transform.getDeterminant()));
+    }
+
+    private final double nodeZoom;
+    private final double edgeZoom;
+
+    /**
+     * Rendering hint holding the level of detail to draw with. Its values are {@link LevelOfDetail} instances.
+     */
+    public static final RenderingHints.Key KEY_LEVEL_OF_DETAIL = new RenderingHints.Key(0x4c4f44)
+    {
+        @Override
+        public boolean isCompatibleValue(Object value)
+        {
+            return value instanceof LevelOfDetail;
+        }
+    };
+
+    /**
+     * Every detail drawn whatever the zoom factor
+     */
+    public static final LevelOfDetail FULL = new LevelOfDetail(0, 0);
+
+    /**
+     * Nodes simplified below half their size, when texts get smaller than about six pixels, and edges below about a
+     * third of their size
+     */
+    public static final LevelOfDetail DEFAULT = new LevelOfDetail(0.5, 0.35);
+}
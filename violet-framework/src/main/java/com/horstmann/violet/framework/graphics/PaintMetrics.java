@@ -0,0 +1,416 @@
+package com.horstmann.violet.framework.graphics;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the time spent painting an editor part, phase by phase: laying the editor out again, the grid, cached
+ * tiles, nodes and edges by type, and behavior overlays. The number of elements drawn and, where the JVM tells it,
+ * the memory allocated by the painting thread are counted too.
+ *
+ * A frame is recorded between {@link #beginFrame()} and {@link #endFrame()}. Graph elements are timed when drawn on
+ * graphics contexts carrying the metrics in {@link #KEY_PAINT_METRICS}, so exports and prints are never measured.
+ * Recording and reading happen on the event dispatch thread; the last frame may be read from any thread.
+ */
+public class PaintMetrics
+{
+    /**
+     * @return true if frames are recorded
+     */
+    public boolean isEnabled()
+    {
+        return this.enabled;
+    }
+
+    /**
+     * @param enabled true to record frames, false to ignore them
+     */
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Starts recording a frame, if enabled
+     */
+    public void beginFrame()
+    {
+        if (!this.enabled)
+        {
+            return;
+        }
+        resetCounters(this.phases.values());
+        resetCounters(this.nodes.values());
+        resetCounters(this.edges.values());
+        this.recording = true;
+        this.frameAllocatedBytes = getAllocatedBytes();
+        this.frameStart = System.nanoTime();
+    }
+
+    /**
+     * Ends the frame being recorded, which becomes the last frame
+     */
+    public void endFrame()
+    {
+        if (!this.recording)
+        {
+            return;
+        }
+        long duration = System.nanoTime() - this.frameStart;
+        long allocatedBytes = getAllocatedBytes();
+        this.recording = false;
+        if (0 <= allocatedBytes && 0 <= this.frameAllocatedBytes)
+        {
+            allocatedBytes -= this.frameAllocatedBytes;
+        }
+        else
+        {
+            allocatedBytes = -1;
+        }
+
+        List<Phase> phases = new ArrayList<Phase>();
+        int elementCount = 0;
+        addPhases(phases, this.phases, "");
+        elementCount += addPhases(phases, this.nodes, "node ");
+        elementCount += addPhases(phases, this.edges, "edge ");
+        this.lastFrame = new Frame(duration, allocatedBytes, elementCount, phases);
+        this.frameCount++;
+    }
+
+    /**
+     * @return true while a frame is being recorded
+     */
+    public boolean isRecording()
+    {
+        return this.recording;
+    }
+
+    /**
+     * Adds the time elapsed since the given instant to a phase of the frame being recorded
+     *
+     * @param phase name of the phase, such as {@link #GRID}
+     * @param startTime instant the phase started, as given by {@link System#nanoTime()}
+     */
+    public void addTime(String phase, long startTime)
+    {
+        if (this.recording)
+        {
+            addTime(this.phases, phase, startTime);
+        }
+    }
+
+    /**
+     * Adds the time elapsed drawing a node, with its children
+     *
+     * @param nodeType class of the node
+     * @param startTime instant the drawing started, as given by {@link System#nanoTime()}
+     */
+    public void addNodeTime(Class<?> nodeType, long startTime)
+    {
+        if (this.recording)
+        {
+            addTime(this.nodes, nodeType, startTime);
+        }
+    }
+
+    /**
+     * Adds the time elapsed drawing an edge
+     *
+     * @param edgeType class of the edge
+     * @param startTime instant the drawing started, as given by {@link System#nanoTime()}
+     */
+    public void addEdgeTime(Class<?> edgeType, long startTime)
+    {
+        if (this.recording)
+        {
+            addTime(this.edges, edgeType, startTime);
+        }
+    }
+
+    /**
+     * @return the last frame recorded, or null if none was
+     */
+    public Frame getLastFrame()
+    {
+        return this.lastFrame;
+    }
+
+    /**
+     * @return number of frames recorded
+     */
+    public long getFrameCount()
+    {
+        return this.frameCount;
+    }
+
+    /**
+     * @param graphics graphics context
+     * @return the metrics recording a frame painted on this graphics context, or null if there are none
+     */
+    public static PaintMetrics getRecording(Graphics2D graphics)
+    {
+        Object metrics = graphics.getRenderingHint(KEY_PAINT_METRICS);
+        if (metrics instanceof PaintMetrics && ((PaintMetrics) metrics).recording)
+        {
+            return (PaintMetrics) metrics;
+        }
+        return null;
+    }
+
+    private static <K> void addTime(Map<K, Counter> counters, K key, long startTime)
+    {
+        long elapsed = System.nanoTime() - startTime;
+        Counter counter = counters.get(key);
+        if (null == counter)
+        {
+            counter = new Counter();
+            counters.put(key, counter);
+        }
+        counter.duration += elapsed;
+        counter.count++;
+    }
+
+    private static void resetCounters(Iterable<Counter> counters)
+    {
+        for (Counter counter : counters)
+        {
+            counter.duration = 0;
+            counter.count = 0;
+        }
+    }
+
+    private static int addPhases(List<Phase> phases, Map<?, Counter> counters, String prefix)
+    {
+        int count = 0;
+        for (Map.Entry<?, Counter> entry : counters.entrySet())
+        {
+            Counter counter = entry.getValue();
+            if (0 == counter.count)
+            {
+                continue;
+            }
+            Object key = entry.getKey();
+            String name = key instanceof Class ? ((Class<?>) key).getSimpleName() : key.toString();
+            phases.add(new Phase(prefix + name, counter.duration, counter.count));
+            count += counter.count;
+        }
+        return count;
+    }
+
+    /**
+     * @return bytes allocated so far by the current thread, or -1 if the JVM does not tell it
+     */
+    private static long getAllocatedBytes()
+    {
+        if (null == ALLOCATED_BYTES_METHOD)
+        {
+            return -1;
+        }
+        try
+        {
+            Object allocatedBytes = ALLOCATED_BYTES_METHOD.invoke(ManagementFactory.getThreadMXBean(),
+                    Thread.currentThread().getId());
+            return ((Long) allocatedBytes).longValue();
+        }
+        catch (Exception e)
+        {
+            return -1;
+        }
+    }
+
+    /**
+     * Looks for the allocation counter some JVMs add to thread management beans
+     */
+    private static Method findAllocatedBytesMethod()
+    {
+        try
+        {
+            Class<?> beanClass = Class.forName("com.sun.management.ThreadMXBean");
+            Object bean = ManagementFactory.getThreadMXBean();
+            if (!beanClass.isInstance(bean))
+            {
+                return null;
+            }
+            Method supported = beanClass.getMethod("isThreadAllocatedMemorySupported");
+            if (!Boolean.TRUE.equals(supported.invoke(bean)))
+            {
+                return null;
+            }
+            beanClass.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(bean, Boolean.TRUE);
+            return beanClass.getMethod("getThreadAllocatedBytes", long.class);
+        }
+        catch (Exception e)
+        {
+            return null;
+        }
+        catch (LinkageError e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Time spent in a phase of a frame
+     */
+    public static class Phase
+    {
+        Phase(String name, long duration, int count)
+        {
+            this.name = name;
+            this.duration = duration;
+            this.count = count;
+        }
+
+        /**
+         * @return name of the phase, or of the type of element drawn, such as "node ClassNode"
+         */
+        public String getName()
+        {
+            return this.name;
+        }
+
+        /**
+         * @return time spent, in nanoseconds
+         */
+        public long getDuration()
+        {
+            return this.duration;
+        }
+
+        /**
+         * @return number of times the phase was entered, or of elements drawn
+         */
+        public int getCount()
+        {
+            return this.count;
+        }
+
+        private final String name;
+        private final long duration;
+        private final int count;
+    }
+
+    /**
+     * Measures of a painted frame
+     */
+    public static class Frame
+    {
+        Frame(long duration, long allocatedBytes, int elementCount, List<Phase> phases)
+        {
+            this.duration = duration;
+            this.allocatedBytes = allocatedBytes;
+            this.elementCount = elementCount;
+            this.phases = Collections.unmodifiableList(phases);
+        }
+
+        /**
+         * @return time spent painting the frame, in nanoseconds
+         */
+        public long getDuration()
+        {
+            return this.duration;
+        }
+
+        /**
+         * @return bytes allocated while painting the frame, or -1 if the JVM does not tell it
+         */
+        public long getAllocatedBytes()
+        {
+            return this.allocatedBytes;
+        }
+
+        /**
+         * @return number of top level nodes and edges drawn
+         */
+        public int getElementCount()
+        {
+            return this.elementCount;
+        }
+
+        /**
+         * @return phases of the frame, in the order they were first entered, element types last
+         */
+        public List<Phase> getPhases()
+        {
+            return this.phases;
+        }
+
+        /**
+         * @param name name of a phase
+         * @return the phase, or null if the frame did not enter it
+         */
+        public Phase getPhase(String name)
+        {
+            for (Phase phase : this.phases)
+            {
+                if (phase.getName().equals(name))
+                {
+                    return phase;
+                }
+            }
+            return null;
+        }
+
+        private final long duration;
+        private final long allocatedBytes;
+        private final int elementCount;
+        private final List<Phase> phases;
+    }
+
+    private static class Counter
+    {
+        long duration;
+        int count;
+    }
+
+    private boolean enabled;
+
+    private boolean recording;
+
+    private long frameStart;
+
+    private long frameAllocatedBytes;
+
+    private volatile Frame lastFrame;
+
+    private volatile long frameCount;
+
+    private final Map<String, Counter> phases = new LinkedHashMap<String, Counter>();
+
+    private final Map<Class<?>, Counter> nodes = new LinkedHashMap<Class<?>, Counter>();
+
+    private final Map<Class<?>, Counter> edges = new LinkedHashMap<Class<?>, Counter>();
+
+    private static final Method ALLOCATED_BYTES_METHOD = findAllocatedBytesMethod();
+
+    /** Laying the editor part out again when the graph grew or shrank */
+    public static final String REVALIDATE = "revalidate";
+
+    /** Painting the grid */
+    public static final String GRID = "grid";
+
+    /** Copying cached tiles on screen, counted tile by tile */
+    public static final String TILES = "tiles";
+
+    /** Painting the overlays of editor behaviors, such as selection grabbers */
+    public static final String OVERLAYS = "overlays";
+
+    /**
+     * Rendering hint holding the metrics to time graph elements with. Its values are {@link PaintMetrics} instances.
+     */
+    public static final RenderingHints.Key KEY_PAINT_METRICS = new RenderingHints.Key(0x504d54)
+    {
+        @Override
+        public boolean isCompatibleValue(Object value)
+        {
+            return value instanceof PaintMetrics;
+        }
+    };
+}
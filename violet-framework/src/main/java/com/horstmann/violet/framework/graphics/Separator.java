@@ -52,7 +52,7 @@ public abstract class Separator
         @Override
         public void draw(Graphics2D graphics, Point2D startPoint, Point2D endPoint)
         {
-            if(null != color)
+            if(null != color && !LevelOfDetail.simplifiesNodes(graphics))
             {
                 Color oldColor = graphics.getColor();
                 graphics.setColor(color);
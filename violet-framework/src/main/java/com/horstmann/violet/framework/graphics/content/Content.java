@@ -4,6 +4,7 @@ import java.awt.Graphics2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This class defines the dimensions and manner of drawing element
@@ -36,6 +37,7 @@ public abstract class Content
      */
     public final void draw(Graphics2D graphics, Point2D offset)
     {
+        validateLayout();
         graphics.translate(offset.getX(), offset.getY());
         draw(graphics);
         graphics.translate(-offset.getX(), -offset.getY());
@@ -78,6 +80,7 @@ public abstract class Content
      */
     public final double getWidth()
     {
+        validateLayout();
         return Math.max(width, minWidth);
     }
 
@@ -86,6 +89,7 @@ public abstract class Content
      */
     public final double getHeight()
     {
+        validateLayout();
         return Math.max(height, minHeight);
     }
 
@@ -100,7 +104,7 @@ public abstract class Content
             throw new IllegalArgumentException("min width can only be a positive number");
         }
         this.minWidth = minWidth;
-        refreshUp();
+        requestRefreshUp();
     }
 
     /**
@@ -113,29 +117,84 @@ public abstract class Content
             throw new IllegalArgumentException("min height can only be a positive number");
         }
         this.minHeight = minHeight;
-        refreshUp();
+        requestRefreshUp();
     }
 
     /**
-     * Recalculates all dimensions
+     * Recalculates all dimensions, at once or when the layout transaction in progress ends
      */
     public final void refresh()
     {
+        LayoutTransaction transaction = LayoutTransaction.getCurrent();
+        if(null != transaction)
+        {
+            transaction.add(this, true);
+            return;
+        }
         refreshUp();
         refreshDown();
     }
 
+    /**
+     * Recalculates dimensions of objects listening and self, at once or when the layout transaction in progress ends
+     */
+    protected final void requestRefreshUp()
+    {
+        LayoutTransaction transaction = LayoutTransaction.getCurrent();
+        if(null != transaction)
+        {
+            transaction.add(this, false);
+            return;
+        }
+        refreshUp();
+    }
+
     /**
      * Recalculates dimensions of objects listening and self
      */
     protected void refreshUp()
     {
+        ++refreshCount;
+        if(LayoutTransaction.isCommitting())
+        {
+            // Objects listening are recalculated by the transaction, once all their subordinates are
+            return;
+        }
         for (Content parent: parents )
         {
             parent.refreshUp();
         }
     }
 
+    /**
+     * @return number of times this element was recalculated following a change in it or in its subordinates
+     */
+    public final long getRefreshCount()
+    {
+        validateLayout();
+        return refreshCount;
+    }
+
+    /**
+     * Starts a layout transaction on the current thread. Until the outermost transaction ends, changes made to
+     * elements only mark them, and each marked element and object listening is recalculated once when it ends. Sizes
+     * read in the meantime are recalculated first.
+     *
+     * Every call must be followed by a call to {@link #endLayout()}, in a finally block.
+     */
+    public static void beginLayout()
+    {
+        LayoutTransaction.begin();
+    }
+
+    /**
+     * Ends the layout transaction started by {@link #beginLayout()}
+     */
+    public static void endLayout()
+    {
+        LayoutTransaction.end();
+    }
+
     /**
      * Recalculates dimensions of objects subordinate and self
      */
@@ -191,10 +250,40 @@ public abstract class Content
         refresh();
     }
 
+    /**
+     * @return objects listening
+     */
+    final List<Content> getParents()
+    {
+        return parents;
+    }
+
+    /**
+     * Marks this element as waiting for the layout transaction in progress
+     * @param layoutPending
+     */
+    final void setLayoutPending(boolean layoutPending)
+    {
+        this.layoutPending = layoutPending;
+    }
+
+    /**
+     * Recalculates the elements waiting for the layout transaction in progress if this one is
+     */
+    private void validateLayout()
+    {
+        if(layoutPending)
+        {
+            LayoutTransaction.flush();
+        }
+    }
+
     private ArrayList<Content> parents = new ArrayList<Content>();
 
     private double minWidth = 0;
     private double minHeight = 0;
     private double width = 0;
     private double height = 0;
+    private long refreshCount = 0;
+    private boolean layoutPending = false;
 }
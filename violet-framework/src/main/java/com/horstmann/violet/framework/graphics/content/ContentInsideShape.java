@@ -126,7 +126,7 @@ public abstract class ContentInsideShape extends Content
 
         content.addParent(this);
         this.content = content;
-        refreshUp();
+        requestRefreshUp();
     }
 
     private Content content;
@@ -37,7 +37,7 @@ public class EmptyContent extends Content
     public void setMinWidth(double minWidth){
         super.setMinWidth(minWidth);
         super.setWidth(minWidth);
-        refreshUp();
+        requestRefreshUp();
     }
 
     /**
@@ -47,6 +47,6 @@ public class EmptyContent extends Content
     public void setMinHeight(double minHeight){
         super.setMinHeight(minHeight);
         super.setHeight(minHeight);
-        refreshUp();
+        requestRefreshUp();
     }
 }
@@ -0,0 +1,207 @@
+package com.horstmann.violet.framework.graphics.content;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Elements waiting to be recalculated on the current thread, while a layout transaction is in progress.
+ *
+ * Each element is recalculated once, after every element it groups, whatever the number of changes made to it and
+ * to its subordinates during the transaction.
+ *
+ * @see Content#beginLayout()
+ */
+class LayoutTransaction
+{
+    /**
+     * @return the transaction in progress on the current thread, or null if there is none
+     */
+    static LayoutTransaction getCurrent()
+    {
+        return CURRENT.get();
+    }
+
+    static void begin()
+    {
+        LayoutTransaction transaction = CURRENT.get();
+        if (null == transaction)
+        {
+            transaction = new LayoutTransaction();
+            CURRENT.set(transaction);
+        }
+        ++transaction.depth;
+    }
+
+    static void end()
+    {
+        LayoutTransaction transaction = CURRENT.get();
+        if (null == transaction)
+        {
+            throw new IllegalStateException("no layout transaction in progress");
+        }
+        if (0 < --transaction.depth)
+        {
+            return;
+        }
+        try
+        {
+            transaction.commit();
+        }
+        finally
+        {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * @return true while the pending elements are being recalculated on the current thread
+     */
+    static boolean isCommitting()
+    {
+        LayoutTransaction transaction = CURRENT.get();
+        return null != transaction && transaction.committing;
+    }
+
+    /**
+     * Recalculates the pending elements right away, without ending the transaction
+     */
+    static void flush()
+    {
+        LayoutTransaction transaction = CURRENT.get();
+        if (null != transaction && !transaction.committing)
+        {
+            transaction.commit();
+        }
+    }
+
+    /**
+     * Marks an element to recalculate when the transaction ends
+     *
+     * @param content the element which changed
+     * @param withSubordinates true if its subordinates are to be recalculated too
+     */
+    void add(Content content, boolean withSubordinates)
+    {
+        if (!this.pending.containsKey(content))
+        {
+            this.pending.put(content, Boolean.valueOf(withSubordinates));
+            this.pendingOrder.add(content);
+        }
+        else if (withSubordinates)
+        {
+            this.pending.put(content, Boolean.TRUE);
+        }
+        markPending(content);
+    }
+
+    private void markPending(Content content)
+    {
+        content.setLayoutPending(true);
+        for (Content parent : content.getParents())
+        {
+            markPending(parent);
+        }
+    }
+
+    private void commit()
+    {
+        this.committing = true;
+        try
+        {
+            // Changes made while recalculating are recalculated in turn
+            while (!this.pendingOrder.isEmpty())
+            {
+                Map<Content, Boolean> pending = this.pending;
+                List<Content> pendingOrder = this.pendingOrder;
+                this.pending = new IdentityHashMap<Content, Boolean>();
+                this.pendingOrder = new ArrayList<Content>();
+                refresh(pending, pendingOrder);
+            }
+        }
+        finally
+        {
+            this.committing = false;
+        }
+    }
+
+    private void refresh(Map<Content, Boolean> pending, List<Content> pendingOrder)
+    {
+        // Elements to recalculate are the changed ones and everything listening to them
+        List<Content> contents = new ArrayList<Content>();
+        Map<Content, Integer> waitingSubordinates = new IdentityHashMap<Content, Integer>();
+        for (Content content : pendingOrder)
+        {
+            collect(content, contents, waitingSubordinates);
+        }
+        for (Content content : contents)
+        {
+            content.setLayoutPending(false);
+            for (Content parent : content.getParents())
+            {
+                waitingSubordinates.put(parent, waitingSubordinates.get(parent) + 1);
+            }
+        }
+
+        // Subordinates first, as they would be recalculated one change after the other
+        LinkedList<Content> ready = new LinkedList<Content>();
+        for (Content content : contents)
+        {
+            if (0 == waitingSubordinates.get(content))
+            {
+                ready.add(content);
+            }
+        }
+        while (!ready.isEmpty())
+        {
+            Content content = ready.removeFirst();
+            content.refreshUp();
+            for (Content parent : content.getParents())
+            {
+                int waiting = waitingSubordinates.get(parent) - 1;
+                waitingSubordinates.put(parent, waiting);
+                if (0 == waiting)
+                {
+                    ready.add(parent);
+                }
+            }
+        }
+
+        for (Content content : pendingOrder)
+        {
+            if (pending.get(content))
+            {
+                content.refreshDown();
+            }
+        }
+    }
+
+    private void collect(Content content, List<Content> contents, Map<Content, Integer> waitingSubordinates)
+    {
+        if (waitingSubordinates.containsKey(content))
+        {
+            return;
+        }
+        waitingSubordinates.put(content, 0);
+        contents.add(content);
+        for (Content parent : content.getParents())
+        {
+            collect(parent, contents, waitingSubordinates);
+        }
+    }
+
+    /** Number of transactions begun and not ended yet */
+    private int depth;
+
+    private boolean committing;
+
+    /** Changed elements, telling whether their subordinates are to be recalculated too */
+    private Map<Content, Boolean> pending = new IdentityHashMap<Content, Boolean>();
+
+    /** Changed elements, in the order they changed */
+    private List<Content> pendingOrder = new ArrayList<Content>();
+
+    private static final ThreadLocal<LayoutTransaction> CURRENT = new ThreadLocal<LayoutTransaction>();
+}
@@ -84,7 +84,7 @@ public class PaddingContent extends Content
             throw new IllegalArgumentException("top padding can't be negative");
         }
         this.top.setMinHeight(top);
-        refreshUp();
+        requestRefreshUp();
     }
 
     public final void setLeftPadding(double left)
@@ -94,7 +94,7 @@ public class PaddingContent extends Content
             throw new IllegalArgumentException("left padding can't be negative");
         }
         this.left.setMinWidth(left);
-        refreshUp();
+        requestRefreshUp();
     }
 
     public final void setBottomPadding(double bottom)
@@ -104,7 +104,7 @@ public class PaddingContent extends Content
             throw new IllegalArgumentException("bottom padding can't be negative");
         }
         this.bottom.setMinHeight(bottom);
-        refreshUp();
+        requestRefreshUp();
     }
 
     public final void setRightPadding(double right)
@@ -114,7 +114,7 @@ public class PaddingContent extends Content
             throw new IllegalArgumentException("right padding can't be negative");
         }
         this.right.setMinWidth(right);
-        refreshUp();
+        requestRefreshUp();
     }
 
     private Content content;
@@ -19,7 +19,7 @@ public class RelativeLayout extends Layout
             content.addParent(this);
             this.content = content;
             this.position = position;
-            refreshUp();
+            requestRefreshUp();
         }
 
         /**
@@ -82,7 +82,7 @@ public class RelativeLayout extends Layout
             {
                 this.position.setLocation(Math.max(0, position.getX()),Math.max(0, position.getY()));
             }
-            refreshUp();
+            requestRefreshUp();
         }
 
         private Point2D position;
@@ -1,5 +1,6 @@
 package com.horstmann.violet.framework.plugin;
 
+import com.horstmann.violet.framework.graphics.LevelOfDetail;
 import com.horstmann.violet.framework.util.ResourceManager;
 import com.horstmann.violet.product.diagram.abstracts.IGraph;
 
@@ -123,6 +124,15 @@ public abstract class AbstractDiagramPlugin implements IDiagramPlugin
         return graphClass;
     }
 
+    /**
+     * @return how much detail diagrams are drawn with in the editor depending on the zoom factor
+     */
+    @Override
+    public LevelOfDetail getLevelOfDetail()
+    {
+        return LevelOfDetail.DEFAULT;
+    }
+
     private ResourceManager resourceManager;
     private final Class<? extends IGraph> graphClass;
 
@@ -1,5 +1,6 @@
 package com.horstmann.violet.framework.plugin;
 
+import com.horstmann.violet.framework.graphics.LevelOfDetail;
 import com.horstmann.violet.product.diagram.abstracts.IGraph;
 
 /**
@@ -40,4 +41,9 @@ public interface IDiagramPlugin extends IPlugin
      */
     Class<? extends IGraph> getGraphClass();
 
+    /**
+     * @return how much detail diagrams are drawn with in the editor depending on the zoom factor
+     */
+    LevelOfDetail getLevelOfDetail();
+
 }
@@ -29,8 +29,15 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import com.horstmann.violet.framework.graphics.PaintMetrics;
+import com.horstmann.violet.product.diagram.abstracts.edge.AbstractEdge;
 import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
 import com.horstmann.violet.product.diagram.abstracts.node.INode;
 import com.horstmann.violet.product.diagram.common.node.NoteNode;
@@ -60,12 +67,13 @@ public abstract class AbstractGraph implements Serializable, Cloneable, IGraph
         {
             edge.reconstruction();
         }
+        requestRerouteAll();
     }
 
     @Override
     public INode findNode(Point2D p)
     {
-        for (INode n : getAllNodes())
+        for (INode n : getNodeSpatialIndex().getCandidates(p))
         {
             Point2D locationOnGraph = n.getLocationOnGraph();
             Rectangle2D bounds = n.getBounds();
@@ -79,77 +87,634 @@ public abstract class AbstractGraph implements Serializable, Cloneable, IGraph
         return null;
     }
 
+    @Override
+    public List<INode> findNodes(Rectangle2D area)
+    {
+        return getNodeSpatialIndex().getCandidates(area);
+    }
+
     @Override
     public INode findNode(Id id)
     {
-        for (INode n : getAllNodes())
+        INode n = getNodeIdIndex().get(id);
+        if (null != n && !id.equals(n.getId()))
         {
-            if (n.getId().equals(id)) return n;
+            invalidateIdIndex();
+            n = getNodeIdIndex().get(id);
         }
-        return null;
+        return n;
     }
 
     @Override
     public IEdge findEdge(Point2D p)
     {
-        for (IEdge e : edges)
+        for (IEdge e : getEdgeSpatialIndex().getCandidates(p))
         {
             if (e.contains(p)) return e;
         }
         return null;
     }
 
+    @Override
+    public List<IEdge> findEdges(Rectangle2D area)
+    {
+        List<IEdge> result = new ArrayList<IEdge>();
+        for (IEdge e : getEdgeSpatialIndex().getCandidates(area))
+        {
+            Rectangle2D bounds = e.getBounds();
+            if (area.getMaxX() >= bounds.getMinX() && area.getMinX() <= bounds.getMaxX()
+                    && area.getMaxY() >= bounds.getMinY() && area.getMinY() <= bounds.getMaxY())
+            {
+                result.add(e);
+            }
+        }
+        return result;
+    }
+
     @Override
     public IEdge findEdge(Id id)
     {
-        for (IEdge e : edges)
+        IEdge e = getEdgeIdIndex().get(id);
+        if (null != e && !id.equals(e.getId()))
         {
-            if (e.getId().equals(id)) return e;
+            invalidateIdIndex();
+            e = getEdgeIdIndex().get(id);
+        }
+        return e;
+    }
+
+    /**
+     * Drops the spatial lookups used by hit tests and the cached graph extent. They are lazily rebuilt on the next query.
+     * Must be called whenever the geometry of the graph changes as a whole. Moved or resized elements are better
+     * reported through {@link #onNodeGeometryChanged(INode)} and {@link #onEdgeGeometryChanged(IEdge)}.
+     */
+    public void invalidateSpatialIndex()
+    {
+        this.nodeSpatialIndex = null;
+        this.edgeSpatialIndex = null;
+        this.nodeDrawingIndex = null;
+        this.edgeDrawingIndex = null;
+        this.staleNodes = null;
+        this.staleEdges = null;
+        this.extentValid = false;
+        ++this.geometryRevision;
+        this.wholeGeometryRevision = this.geometryRevision;
+        this.nodeGeometryRevisions = null;
+    }
+
+    /**
+     * Notes that a node moved or was resized. The node, the nodes it belongs to and the edges connected to them are
+     * indexed again on the next query, in place. These edges are routed again once the current transaction ends, or
+     * right away outside of transactions.
+     * 
+     * @param node a node of this graph
+     */
+    public void onNodeGeometryChanged(INode node)
+    {
+        reindexNode(node);
+        ++this.geometryRevision;
+        if (null == this.nodeGeometryRevisions)
+        {
+            this.nodeGeometryRevisions = new IdentityHashMap<INode, Long>();
+        }
+        this.nodeGeometryRevisions.put(node, this.geometryRevision);
+        requestReroute(node);
+    }
+
+    /**
+     * Indexes a node again on the next query, without counting a geometry change. Meant for nodes whose bounds follow
+     * a change already counted, such as lifelines drawn down to the lowest activation bar.
+     * 
+     * @param node a node of this graph
+     */
+    protected void reindexNode(INode node)
+    {
+        if (null == this.staleNodes)
+        {
+            this.staleNodes = Collections.newSetFromMap(new IdentityHashMap<INode, Boolean>());
+        }
+        this.staleNodes.add(node);
+        this.extentValid = false;
+    }
+
+    /**
+     * Notes that the path of an edge changed. The edge is indexed again on the next query, in place. The edges
+     * connected to the same nodes are routed again, as they share the sides of these nodes with it.
+     * 
+     * @param edge an edge of this graph
+     */
+    public void onEdgeGeometryChanged(IEdge edge)
+    {
+        addStaleEdge(edge);
+        this.extentValid = false;
+        ++this.geometryRevision;
+        // Edges sharing a side of a node are ordered along it
+        requestReroute(edge.getStartNode(), edge.getEndNode());
+    }
+
+    private void addStaleEdge(IEdge edge)
+    {
+        if (null == this.staleEdges)
+        {
+            this.staleEdges = Collections.newSetFromMap(new IdentityHashMap<IEdge, Boolean>());
+        }
+        this.staleEdges.add(edge);
+    }
+
+    /**
+     * Returns a counter increased on every geometry change of the graph.
+     * Elements may key their own geometry caches on it.
+     *
+     * @return current geometry revision
+     */
+    public long getGeometryRevision()
+    {
+        return this.geometryRevision;
+    }
+
+    /**
+     * Returns the geometry revision at which the given node last moved or was resized, or at which the geometry of
+     * the whole graph last changed when this came later. Elements may key their own geometry caches on the nodes they
+     * depend on.
+     *
+     * @param node a node of this graph
+     * @return a revision no greater than the current geometry revision
+     */
+    public long getGeometryRevision(INode node)
+    {
+        Long nodeRevision = null != this.nodeGeometryRevisions ? this.nodeGeometryRevisions.get(node) : null;
+        return null != nodeRevision ? nodeRevision.longValue() : this.wholeGeometryRevision;
+    }
+
+    /**
+     * Drops the Id lookups. They are lazily rebuilt on the next query.
+     * Must be called whenever a node or an edge is added, removed, moved to another parent or gets a new Id.
+     */
+    public void invalidateIdIndex()
+    {
+        this.nodeIdIndex = null;
+        this.edgeIdIndex = null;
+    }
+
+    /**
+     * Drops the flattened node hierarchy and every lookup built upon it.
+     * Must be called whenever a node is added, removed or moved to another parent.
+     */
+    public void invalidateNodeHierarchy()
+    {
+        this.allNodes = null;
+        invalidateDrawOrder();
+        invalidateIdIndex();
+        invalidateSpatialIndex();
+        requestRerouteAll();
+    }
+
+    /**
+     * Asks for the edges connected to the given nodes, and to the nodes sharing their top level node, to be routed
+     * again
+     */
+    private void requestReroute(INode... nodes)
+    {
+        if (null == this.nodesToReroute)
+        {
+            this.nodesToReroute = new ArrayList<INode>();
+        }
+        for (INode node : nodes)
+        {
+            if (null != node)
+            {
+                this.nodesToReroute.add(node);
+            }
+        }
+        rerouteEdges();
+    }
+
+    private void requestRerouteAll()
+    {
+        this.allEdgesToReroute = true;
+        rerouteEdges();
+    }
+
+    /**
+     * Computes the contact points of the edges asked for, unless a transaction is in progress. Routing an edge
+     * again may move the edges sharing its nodes, which are routed in turn. Changes are sent as one batch.
+     */
+    private void rerouteEdges()
+    {
+        if (0 < this.transactionDepth || this.rerouting || (null == this.nodesToReroute && !this.allEdgesToReroute))
+        {
+            return;
+        }
+        this.rerouting = true;
+        beginTransaction();
+        try
+        {
+            int passes = 0;
+            while (null != this.nodesToReroute || this.allEdgesToReroute)
+            {
+                List<IEdge> edgesToReroute = getEdgesToReroute();
+                this.nodesToReroute = null;
+                this.allEdgesToReroute = false;
+                if (++passes > MAX_REROUTE_PASSES)
+                {
+                    // Edges keep moving each other : leave them as they are
+                    break;
+                }
+                for (IEdge e : edgesToReroute)
+                {
+                    if (e instanceof AbstractEdge)
+                    {
+                        ((AbstractEdge) e).reroute();
+                    }
+                }
+            }
+        }
+        finally
+        {
+            this.rerouting = false;
+            endTransaction();
         }
-        return null;
     }
-    
-    
+
+    private List<IEdge> getEdgesToReroute()
+    {
+        if (this.allEdgesToReroute)
+        {
+            return new ArrayList<IEdge>(edges);
+        }
+        List<IEdge> edgesToReroute = new ArrayList<IEdge>();
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        for (INode node : this.nodesToReroute)
+        {
+            INode root = getRoot(node);
+            if (visited.add(root))
+            {
+                collectConnectedEdges(root, edgesToReroute, visited);
+            }
+        }
+        return edgesToReroute;
+    }
+
+    private void collectConnectedEdges(INode node, List<IEdge> connectedEdges, Set<Object> visited)
+    {
+        List<IEdge> edgesOfNode = getAdjacency().get(node);
+        if (null != edgesOfNode)
+        {
+            for (IEdge e : edgesOfNode)
+            {
+                if (visited.add(e))
+                {
+                    connectedEdges.add(e);
+                }
+            }
+        }
+        for (INode child : node.getChildren())
+        {
+            collectConnectedEdges(child, connectedEdges, visited);
+        }
+    }
+
+    /**
+     * Drops the z-ordered list used to draw nodes.
+     * Must be called whenever a node changes its z level.
+     */
+    public void invalidateDrawOrder()
+    {
+        this.drawOrder = null;
+        this.nodeDrawingIndex = null;
+    }
+
+    private List<INode> getDrawOrder()
+    {
+        if (null == this.drawOrder)
+        {
+            List<INode> sortedNodes = new ArrayList<INode>(getAllNodes());
+            // Stable sort : nodes on the same level keep the getAllNodes() order
+            Collections.sort(sortedNodes, new Comparator<INode>()
+            {
+                @Override
+                public int compare(INode n1, INode n2)
+                {
+                    int z1 = n1.getZ();
+                    int z2 = n2.getZ();
+                    return z1 < z2 ? -1 : (z1 == z2 ? 0 : 1);
+                }
+            });
+            this.drawOrder = sortedNodes;
+        }
+        return this.drawOrder;
+    }
+
+    private Map<Id, INode> getNodeIdIndex()
+    {
+        if (null == this.nodeIdIndex)
+        {
+            Map<Id, INode> index = new HashMap<Id, INode>();
+            for (INode n : getAllNodes())
+            {
+                // Keeps the first match, as a scan over getAllNodes() would
+                if (!index.containsKey(n.getId()))
+                {
+                    index.put(n.getId(), n);
+                }
+            }
+            this.nodeIdIndex = index;
+        }
+        return this.nodeIdIndex;
+    }
+
+    private Map<Id, IEdge> getEdgeIdIndex()
+    {
+        if (null == this.edgeIdIndex)
+        {
+            Map<Id, IEdge> index = new HashMap<Id, IEdge>();
+            for (IEdge e : edges)
+            {
+                if (!index.containsKey(e.getId()))
+                {
+                    index.put(e.getId(), e);
+                }
+            }
+            this.edgeIdIndex = index;
+        }
+        return this.edgeIdIndex;
+    }
+
+    /**
+     * Moves the elements which changed since the last query to their new cells. Nodes are indexed again with all the
+     * nodes of the same top level node, as parents may grow or shrink around their children.
+     */
+    private void refreshStaleEntries()
+    {
+        int passes = 0;
+        while (null != this.staleNodes || null != this.staleEdges)
+        {
+            if (++passes > MAX_REFRESH_PASSES)
+            {
+                // Elements keep moving each other : rebuild everything on the next query
+                invalidateSpatialIndex();
+                return;
+            }
+            Set<INode> staleNodes = this.staleNodes;
+            this.staleNodes = null;
+            if (null != staleNodes)
+            {
+                Set<INode> roots = Collections.newSetFromMap(new IdentityHashMap<INode, Boolean>());
+                for (INode node : staleNodes)
+                {
+                    INode root = getRoot(node);
+                    if (roots.add(root))
+                    {
+                        refreshStaleEntries(root, root);
+                    }
+                }
+            }
+            Set<IEdge> staleEdges = this.staleEdges;
+            this.staleEdges = null;
+            if (null == staleEdges)
+            {
+                continue;
+            }
+            for (IEdge e : staleEdges)
+            {
+                if (null != this.edgeSpatialIndex)
+                {
+                    this.edgeSpatialIndex.update(e, getHitBounds(e));
+                }
+                if (null != this.edgeDrawingIndex)
+                {
+                    this.edgeDrawingIndex.update(e, getDrawingBounds(e));
+                }
+            }
+        }
+    }
+
+    private void refreshStaleEntries(INode node, INode root)
+    {
+        if (null != this.nodeSpatialIndex)
+        {
+            this.nodeSpatialIndex.update(node, getNodeBoundsOnGraph(node));
+        }
+        if (null != this.nodeDrawingIndex && (node == root || node instanceof NoteNode))
+        {
+            this.nodeDrawingIndex.update(node, getDrawingBounds(node));
+        }
+        // Edges are drawn around their end nodes
+        List<IEdge> connectedEdges = getAdjacency().get(node);
+        if (null != connectedEdges)
+        {
+            for (IEdge e : connectedEdges)
+            {
+                addStaleEdge(e);
+            }
+        }
+        for (INode child : node.getChildren())
+        {
+            refreshStaleEntries(child, root);
+        }
+    }
+
+    private SpatialIndex<INode> getNodeSpatialIndex()
+    {
+        refreshStaleEntries();
+        if (null == this.nodeSpatialIndex)
+        {
+            SpatialIndex<INode> index = new SpatialIndex<INode>();
+            for (INode n : getAllNodes())
+            {
+                index.add(n, getNodeBoundsOnGraph(n));
+            }
+            this.nodeSpatialIndex = index;
+        }
+        return this.nodeSpatialIndex;
+    }
+
+    private SpatialIndex<IEdge> getEdgeSpatialIndex()
+    {
+        refreshStaleEntries();
+        if (null == this.edgeSpatialIndex)
+        {
+            SpatialIndex<IEdge> index = new SpatialIndex<IEdge>();
+            for (IEdge e : edges)
+            {
+                index.add(e, getHitBounds(e));
+            }
+            this.edgeSpatialIndex = index;
+        }
+        return this.edgeSpatialIndex;
+    }
+
+    private Rectangle2D getHitBounds(IEdge edge)
+    {
+        return grow(edge.getBounds(), EDGE_HIT_MARGIN);
+    }
+
+    /**
+     * Indexes the nodes drawn directly by the graph, in draw order. Each one draws its children.
+     */
+    private SpatialIndex<INode> getNodeDrawingIndex()
+    {
+        refreshStaleEntries();
+        if (null == this.nodeDrawingIndex)
+        {
+            SpatialIndex<INode> index = new SpatialIndex<INode>();
+            for (INode n : getDrawOrder())
+            {
+                if (n instanceof NoteNode || null == n.getParent())
+                {
+                    index.add(n, getDrawingBounds(n));
+                }
+            }
+            this.nodeDrawingIndex = index;
+        }
+        return this.nodeDrawingIndex;
+    }
+
+    private SpatialIndex<IEdge> getEdgeDrawingIndex()
+    {
+        refreshStaleEntries();
+        if (null == this.edgeDrawingIndex)
+        {
+            SpatialIndex<IEdge> index = new SpatialIndex<IEdge>();
+            for (IEdge e : edges)
+            {
+                index.add(e, getDrawingBounds(e));
+            }
+            this.edgeDrawingIndex = index;
+        }
+        return this.edgeDrawingIndex;
+    }
+
+    /**
+     * Returns the area a node and its children may paint on, in graph coordinates. It includes some room for what
+     * is drawn outside of the bounds, such as shadows.
+     * 
+     * @param node a node of this graph
+     * @return area on graph
+     */
+    public Rectangle2D getDrawingBounds(INode node)
+    {
+        return grow(getSubtreeBounds(node), DRAWING_MARGIN);
+    }
+
+    /**
+     * Returns the area an edge may paint on, in graph coordinates. Contact points of edges out of sight are only
+     * updated when they are drawn, so this area also encloses the end nodes, which enclose the path the edge will be
+     * given. It includes some room for arrowheads and labels.
+     * 
+     * @param edge an edge of this graph
+     * @return area on graph
+     */
+    public Rectangle2D getDrawingBounds(IEdge edge)
+    {
+        Rectangle2D bounds = new Rectangle2D.Double();
+        bounds.setRect(edge.getBounds());
+        bounds.add(getNodeBoundsOnGraph(edge.getStartNode()));
+        bounds.add(getNodeBoundsOnGraph(edge.getEndNode()));
+        return grow(bounds, DRAWING_MARGIN);
+    }
+
+    private Rectangle2D getNodeBoundsOnGraph(INode node)
+    {
+        Point2D locationOnGraph = node.getLocationOnGraph();
+        Rectangle2D bounds = node.getBounds();
+        return new Rectangle2D.Double(locationOnGraph.getX(), locationOnGraph.getY(), bounds.getWidth(), bounds.getHeight());
+    }
+
+    private static Rectangle2D grow(Rectangle2D bounds, double margin)
+    {
+        return new Rectangle2D.Double(bounds.getX() - margin, bounds.getY() - margin, bounds.getWidth() + 2 * margin,
+                bounds.getHeight() + 2 * margin);
+    }
+
+    private static INode getRoot(INode node)
+    {
+        INode root = node;
+        while (null != root.getParent())
+        {
+            root = root.getParent();
+        }
+        return root;
+    }
+
+    private Rectangle2D getSubtreeBounds(INode node)
+    {
+        Rectangle2D subtreeBounds = getNodeBoundsOnGraph(node);
+        for (INode child : node.getChildren())
+        {
+            subtreeBounds.add(getSubtreeBounds(child));
+        }
+        return subtreeBounds;
+    }
 
 
     @Override
     public void draw(Graphics2D graphics)
     {
+        draw(graphics, null);
+    }
+
+    @Override
+    public void draw(Graphics2D graphics, Rectangle2D visibleArea)
+    {
+        drawLayer(graphics, visibleArea, Collections.<Object>emptySet(), false);
+    }
+
+    /**
+     * Draws either the elements of a layer or everything else, such as moving elements and the still part of the
+     * graph they are dragged over.
+     * 
+     * @param graphics graphics context
+     * @param visibleArea area to draw, or null to draw the whole graph
+     * @param layer top level nodes, drawn with their children, and edges making the layer
+     * @param inLayer true to draw the elements of the layer only, false to draw the elements out of it
+     */
+    public void drawLayer(Graphics2D graphics, Rectangle2D visibleArea, Set<Object> layer, boolean inLayer)
+    {
+        Collection<INode> nodesToDraw = getDrawOrder();
+        Collection<IEdge> edgesToDraw = edges;
+        if (null != visibleArea)
+        {
+            nodesToDraw = getNodeDrawingIndex().getCandidates(visibleArea);
+            edgesToDraw = getEdgeDrawingIndex().getCandidates(visibleArea);
+        }
+
         graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
         graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
+        // Elements are timed one by one while an editor part measures its frames
+        PaintMetrics metrics = PaintMetrics.getRecording(graphics);
         List<INode> specialNodes = new ArrayList<INode>();
 
-        int count = 0;
-        int z = 0;
-        Collection<INode> nodes = getAllNodes();
-        while (count < nodes.size())
+        for (INode node : nodesToDraw)
         {
-            for (INode node : nodes)
+            if (layer.contains(getRoot(node)) != inLayer)
             {
-                if (node.getZ() == z)
+                continue;
+            }
+            if (node instanceof NoteNode)
+            {
+                specialNodes.add(node);
+            }
+            else
+            {
+                if(null == node.getParent())
                 {
-                    if (node instanceof NoteNode)
-                    {
-                        specialNodes.add(node);
-                    }
-                    else
-                    {
-                        if(null == node.getParent())
-                        {
-                            node.draw(graphics);
-                        }
-                    }
-                    count++;
+                    long startTime = null != metrics ? System.nanoTime() : 0;
+                    node.draw(graphics);
+                    if (null != metrics) metrics.addNodeTime(node.getClass(), startTime);
                 }
             }
-            z++;
         }
 
-        for (int i = 0; i < edges.size(); i++)
+        for (IEdge e : edgesToDraw)
         {
-            IEdge e = (IEdge) edges.get(i);
-            e.draw(graphics);
+            if (layer.contains(e) == inLayer)
+            {
+                long startTime = null != metrics ? System.nanoTime() : 0;
+                e.draw(graphics);
+                if (null != metrics) metrics.addEdgeTime(e.getClass(), startTime);
+            }
         }
         // Special node are always drawn upon other elements
         for (INode n : specialNodes)
@@ -160,7 +725,9 @@ public abstract class AbstractGraph implements Serializable, Cloneable, IGraph
             Point2D g2Location = new Point2D.Double(nodeLocationOnGraph.getX() - nodeLocation.getX(), nodeLocationOnGraph.getY()
                     - nodeLocation.getY());
             graphics.translate(g2Location.getX(), g2Location.getY());
+            long startTime = null != metrics ? System.nanoTime() : 0;
             n.draw(graphics);
+            if (null != metrics) metrics.addNodeTime(n.getClass(), startTime);
             // Restore graphics original location
             graphics.translate(-g2Location.getX(), -g2Location.getY());
         }
@@ -174,20 +741,54 @@ public abstract class AbstractGraph implements Serializable, Cloneable, IGraph
      */
     public Rectangle2D getClipBounds()
     {
-        Rectangle2D r = minBounds;
-        for (INode n : nodes)
+        Rectangle2D r = getExtent();
+        if (null == r)
         {
-            Rectangle2D b = n.getBounds();
-            if (r == null) r = b;
-            else r.add(b);
+            r = minBounds;
         }
-        for (IEdge e : edges)
+        else if (null != minBounds)
         {
-            r.add(e.getBounds());
+            r = r.createUnion(minBounds);
         }
         return r == null ? new Rectangle2D.Double() : new Rectangle2D.Double(r.getX(), r.getY(), r.getWidth(), r.getHeight());
     }
 
+    /**
+     * Returns the union of nodes and edges bounds, recomputed only after a geometry change.
+     * The returned rectangle is shared and must not be modified.
+     *
+     * @return graph extent or null if the graph is empty
+     */
+    private Rectangle2D getExtent()
+    {
+        if (!this.extentValid)
+        {
+            // Set first : computing bounds may move nodes and invalidate the extent again
+            this.extentValid = true;
+            Rectangle2D r = null;
+            for (INode n : nodes)
+            {
+                r = union(r, n.getBounds());
+            }
+            for (IEdge e : edges)
+            {
+                r = union(r, e.getBounds());
+            }
+            this.extent = r;
+        }
+        return this.extent;
+    }
+
+    private static Rectangle2D union(Rectangle2D r, Rectangle2D b)
+    {
+        if (null == r)
+        {
+            return new Rectangle2D.Double(b.getX(), b.getY(), b.getWidth(), b.getHeight());
+        }
+        r.add(b);
+        return r;
+    }
+
     @Override
     public void setBounds(Rectangle2D newValue)
     {
@@ -200,23 +801,26 @@ public abstract class AbstractGraph implements Serializable, Cloneable, IGraph
     @Override
     public abstract List<IEdge> getEdgePrototypes();
 
+    /**
+     * Returns a cached snapshot which is replaced, never modified, when the hierarchy changes.
+     * It is therefore safe to iterate over it while adding or removing nodes.
+     */
     @Override
     public Collection<INode> getAllNodes()
     {
-        List<INode> fifo = new ArrayList<INode>();
-        List<INode> allNodes = new ArrayList<INode>();
-        fifo.addAll(nodes);
-        allNodes.addAll(nodes);
-        while (!fifo.isEmpty())
+        if (null == this.allNodes)
         {
-            INode nodeToInspect = fifo.remove(0);
-            List<INode> children = nodeToInspect.getChildren();
-            fifo.addAll(children);
-            allNodes.addAll(children);
+            // Breadth-first walk, the list itself is the queue
+            List<INode> flattenedNodes = new ArrayList<INode>(nodes);
+            for (int i = 0; i < flattenedNodes.size(); ++i)
+            {
+                flattenedNodes.addAll(flattenedNodes.get(i).getChildren());
+            }
+            // Let's have children first
+            Collections.reverse(flattenedNodes);
+            this.allNodes = Collections.unmodifiableList(flattenedNodes);
         }
-        // Let's have children first
-        Collections.reverse(allNodes);
-        return Collections.unmodifiableCollection(allNodes);
+        return this.allNodes;
     }
 
     @Override
@@ -225,8 +829,106 @@ public abstract class AbstractGraph implements Serializable, Cloneable, IGraph
         return Collections.unmodifiableCollection(edges);
     }
 
+    @Override
+    public List<IEdge> getConnectedEdges(INode node)
+    {
+        List<IEdge> connectedEdges = getAdjacency().get(node);
+        if (null == connectedEdges)
+        {
+            return new ArrayList<IEdge>();
+        }
+        return new ArrayList<IEdge>(connectedEdges);
+    }
+
+    private Map<INode, List<IEdge>> getAdjacency()
+    {
+        if (null == this.adjacency)
+        {
+            this.adjacency = new IdentityHashMap<INode, List<IEdge>>();
+            for (IEdge e : edges)
+            {
+                addToAdjacency(e);
+            }
+        }
+        return this.adjacency;
+    }
+
+    private void addToAdjacency(IEdge e)
+    {
+        addToAdjacency(e.getStartNode(), e);
+        if (e.getEndNode() != e.getStartNode())
+        {
+            addToAdjacency(e.getEndNode(), e);
+        }
+    }
+
+    private void addToAdjacency(INode node, IEdge e)
+    {
+        if (null == node)
+        {
+            return;
+        }
+        List<IEdge> connectedEdges = this.adjacency.get(node);
+        if (null == connectedEdges)
+        {
+            connectedEdges = new ArrayList<IEdge>();
+            this.adjacency.put(node, connectedEdges);
+        }
+        connectedEdges.add(e);
+    }
+
+    private void removeFromAdjacency(IEdge e)
+    {
+        if (null == this.adjacency)
+        {
+            return;
+        }
+        boolean isRemoved = removeFromAdjacency(e.getStartNode(), e);
+        if (e.getEndNode() != e.getStartNode())
+        {
+            isRemoved &= removeFromAdjacency(e.getEndNode(), e);
+        }
+        if (!isRemoved)
+        {
+            // Edge ends changed since it was connected, rebuild on next query
+            this.adjacency = null;
+        }
+    }
+
+    private boolean removeFromAdjacency(INode node, IEdge e)
+    {
+        List<IEdge> connectedEdges = this.adjacency.get(node);
+        if (null == connectedEdges || !connectedEdges.remove(e))
+        {
+            return false;
+        }
+        if (connectedEdges.isEmpty())
+        {
+            this.adjacency.remove(node);
+        }
+        return true;
+    }
+
     @Override
     public boolean addNode(INode newNode, Point2D p)
+    {
+        beginTransaction();
+        try
+        {
+            boolean isAdded = attachNode(newNode, p);
+            if (isAdded)
+            {
+                fireNodeChange(GraphChange.Type.NODE_ADDED, newNode);
+            }
+            return isAdded;
+        }
+        finally
+        {
+            endTransaction();
+        }
+    }
+
+    private boolean attachNode(INode newNode, Point2D p)
     {
         newNode.setId(new Id());
         newNode.setGraph(this);
@@ -235,6 +937,7 @@ public abstract class AbstractGraph implements Serializable, Cloneable, IGraph
         {
             newNode.setLocation(p);
             nodes.add(newNode);
+            invalidateNodeHierarchy();
             return true;
         }
         // Case 2 : attached to an existing node_old
@@ -244,17 +947,33 @@ public abstract class AbstractGraph implements Serializable, Cloneable, IGraph
             Point2D parentLocationOnGraph = potentialParentNode.getLocationOnGraph();
             Point2D relativeLocation = new Point2D.Double(p.getX() - parentLocationOnGraph.getX(), p.getY()
                     - parentLocationOnGraph.getY());
-            return potentialParentNode.addChild(newNode, relativeLocation);
+            boolean isAdded = potentialParentNode.addChild(newNode, relativeLocation);
+            invalidateNodeHierarchy();
+            return isAdded;
         }
         // Case 3 : attached directly to the graph
         newNode.setLocation(p);
         newNode.setParent(null);
         nodes.add(newNode);
+        invalidateNodeHierarchy();
         return true;
     }
 
     @Override
     public void removeNode(INode... nodesToRemove)
+    {
+        beginTransaction();
+        try
+        {
+            detachNodes(nodesToRemove);
+        }
+        finally
+        {
+            endTransaction();
+        }
+    }
+
+    private void detachNodes(INode... nodesToRemove)
     {
         // Step 1a : Remove node directly attach to the graph
         for (INode aNodeToRemove : nodesToRemove)
@@ -262,6 +981,8 @@ public abstract class AbstractGraph implements Serializable, Cloneable, IGraph
             if (this.nodes.contains(aNodeToRemove))
             {
                 this.nodes.remove(aNodeToRemove);
+                invalidateNodeHierarchy();
+                fireNodeChange(GraphChange.Type.NODE_REMOVED, aNodeToRemove);
             }
         }
         // Step 1b : Remove node attach to other node as children
@@ -273,12 +994,15 @@ public abstract class AbstractGraph implements Serializable, Cloneable, IGraph
                 if (children.contains(aNodeToRemove))
                 {
                     aNode.removeChild(aNodeToRemove);
+                    fireNodeChange(GraphChange.Type.NODE_REMOVED, aNodeToRemove);
                 }
             }
         }
+        invalidateNodeHierarchy();
         // Step 2 : Disconnect edges
         List<IEdge> edgesToRemove = new ArrayList<IEdge>();
-        Collection<INode> allNodes = getAllNodes();
+        Set<INode> allNodes = Collections.newSetFromMap(new IdentityHashMap<INode, Boolean>());
+        allNodes.addAll(getAllNodes());
         for (IEdge anEdge : this.edges)
         {
             INode startingNode = anEdge.getStartNode();
@@ -295,6 +1019,19 @@ public abstract class AbstractGraph implements Serializable, Cloneable, IGraph
 
     @Override
     public boolean connect(IEdge e, INode start, Point2D startLocation, INode end, Point2D endLocation, Point2D[] transitionPoints)
+    {
+        beginTransaction();
+        try
+        {
+            return attachEdge(e, start, startLocation, end, endLocation, transitionPoints);
+        }
+        finally
+        {
+            endTransaction();
+        }
+    }
+
+    private boolean attachEdge(IEdge e, INode start, Point2D startLocation, INode end, Point2D endLocation, Point2D[] transitionPoints)
     {
         // Step 1 : find if node exist
         Collection<INode> allNodes = getAllNodes();
@@ -316,12 +1053,20 @@ public abstract class AbstractGraph implements Serializable, Cloneable, IGraph
         {
             e.setId(new Id());
             edges.add(e);
+            if (null != this.adjacency)
+            {
+                addToAdjacency(e);
+            }
+            invalidateSpatialIndex();
+            invalidateIdIndex();
+            requestReroute(start, end);
 
             start.onConnectedEdge(e);
             if(end != null)
             {
                 end.onConnectedEdge(e);
             }
+            fireEdgeChange(GraphChange.Type.EDGE_CONNECTED, e);
 
             return true;
         }
@@ -332,13 +1077,28 @@ public abstract class AbstractGraph implements Serializable, Cloneable, IGraph
     @Override
     public void removeEdge(IEdge... edgesToRemove)
     {
-        for (IEdge anEdgeToRemove : edgesToRemove)
+        beginTransaction();
+        try
         {
-            INode startingNode = anEdgeToRemove.getStartNode();
-            INode endingNode = anEdgeToRemove.getEndNode();
-            startingNode.removeConnection(anEdgeToRemove);
-            endingNode.removeConnection(anEdgeToRemove);
-            this.edges.remove(anEdgeToRemove);
+            for (IEdge anEdgeToRemove : edgesToRemove)
+            {
+                INode startingNode = anEdgeToRemove.getStartNode();
+                INode endingNode = anEdgeToRemove.getEndNode();
+                startingNode.removeConnection(anEdgeToRemove);
+                endingNode.removeConnection(anEdgeToRemove);
+                if (this.edges.remove(anEdgeToRemove))
+                {
+                    removeFromAdjacency(anEdgeToRemove);
+                    requestReroute(startingNode, endingNode);
+                    fireEdgeChange(GraphChange.Type.EDGE_REMOVED, anEdgeToRemove);
+                }
+            }
+            invalidateSpatialIndex();
+            invalidateIdIndex();
+        }
+        finally
+        {
+            endTransaction();
         }
     }
 
@@ -369,10 +1129,155 @@ public abstract class AbstractGraph implements Serializable, Cloneable, IGraph
     public void setGridSticker(IGridSticker positionCorrector)
     {
         this.gridSticker = positionCorrector;
+        invalidateSpatialIndex();
+        requestRerouteAll();
+    }
+
+    @Override
+    public void addGraphListener(IGraphListener listener)
+    {
+        if (null == this.graphListeners)
+        {
+            this.graphListeners = new ArrayList<IGraphListener>();
+        }
+        this.graphListeners.add(listener);
+    }
+
+    @Override
+    public void removeGraphListener(IGraphListener listener)
+    {
+        if (null != this.graphListeners)
+        {
+            this.graphListeners.remove(listener);
+        }
+    }
+
+    /**
+     * @return true if at least one listener is registered. Lets elements skip computing changes no one listens to.
+     */
+    public boolean hasGraphListeners()
+    {
+        return null != this.graphListeners && !this.graphListeners.isEmpty();
+    }
+
+    @Override
+    public void beginTransaction()
+    {
+        ++this.transactionDepth;
+    }
+
+    @Override
+    public void endTransaction()
+    {
+        if (0 >= this.transactionDepth)
+        {
+            throw new IllegalStateException("No transaction in progress");
+        }
+        --this.transactionDepth;
+        if (0 == this.transactionDepth)
+        {
+            // Edges are routed once, after every change of the transaction
+            rerouteEdges();
+        }
+        if (0 == this.transactionDepth && null != this.pendingChanges)
+        {
+            List<GraphChange> changes = this.pendingChanges;
+            this.pendingChanges = null;
+            notifyGraphListeners(Collections.unmodifiableList(changes));
+        }
+    }
+
+    /**
+     * Sends a change made on a node to listeners, or queues it while a transaction is in progress
+     * 
+     * @param type kind of change
+     * @param node changed node
+     */
+    public void fireNodeChange(GraphChange.Type type, INode node)
+    {
+        if (hasGraphListeners())
+        {
+            fireGraphChange(new GraphChange(type, node));
+        }
+    }
+
+    /**
+     * Sends a change made on an edge to listeners, or queues it while a transaction is in progress
+     * 
+     * @param type kind of change
+     * @param edge changed edge
+     */
+    public void fireEdgeChange(GraphChange.Type type, IEdge edge)
+    {
+        if (hasGraphListeners())
+        {
+            fireGraphChange(new GraphChange(type, edge));
+        }
+    }
+
+    private void fireGraphChange(GraphChange change)
+    {
+        if (0 < this.transactionDepth)
+        {
+            if (null == this.pendingChanges)
+            {
+                this.pendingChanges = new ArrayList<GraphChange>();
+            }
+            this.pendingChanges.add(change);
+            return;
+        }
+        notifyGraphListeners(Collections.singletonList(change));
+    }
+
+    private void notifyGraphListeners(List<GraphChange> changes)
+    {
+        if (!hasGraphListeners())
+        {
+            return;
+        }
+        // Copy : listeners may unregister themselves while being notified
+        IGraphListener[] listeners = this.graphListeners.toArray(new IGraphListener[this.graphListeners.size()]);
+        for (IGraphListener listener : listeners)
+        {
+            listener.onGraphChanged(changes);
+        }
     }
 
     private ArrayList<INode> nodes;
     private ArrayList<IEdge> edges;
     private transient Rectangle2D minBounds;
+    private transient Rectangle2D extent;
+    private transient boolean extentValid;
+    private transient long geometryRevision;
+    private transient long wholeGeometryRevision;
+    private transient Map<INode, Long> nodeGeometryRevisions;
+    private transient List<IGraphListener> graphListeners;
+    private transient List<GraphChange> pendingChanges;
+    private transient int transactionDepth;
     private transient IGridSticker gridSticker;
+    private transient List<INode> allNodes;
+    private transient List<INode> drawOrder;
+    private transient SpatialIndex<INode> nodeSpatialIndex;
+    private transient SpatialIndex<IEdge> edgeSpatialIndex;
+    private transient SpatialIndex<INode> nodeDrawingIndex;
+    private transient SpatialIndex<IEdge> edgeDrawingIndex;
+    /** Elements which moved since the spatial lookups were last queried */
+    private transient Set<INode> staleNodes;
+    private transient Set<IEdge> staleEdges;
+    /** Nodes moved since edges were last routed, and whether every edge is to be routed again */
+    private transient List<INode> nodesToReroute;
+    private transient boolean allEdgesToReroute;
+    private transient boolean rerouting;
+    private transient Map<Id, INode> nodeIdIndex;
+    private transient Map<Id, IEdge> edgeIdIndex;
+    private transient Map<INode, List<IEdge>> adjacency;
+
+    /** Tolerance around edge bounds, matching the fat stroke used by edge hit tests */
+    private static final double EDGE_HIT_MARGIN = 10;
+    /** Number of times stale elements are indexed again in a row before giving up and rebuilding the lookups */
+    private static final int MAX_REFRESH_PASSES = 8;
+    /** Number of times edges moved by their neighbours are routed again in a row before leaving them as they are */
+    private static final int MAX_REROUTE_PASSES = 16;
+    /** Room left around element bounds for what they draw outside of them, such as shadows, arrowheads and labels */
+    private static final double DRAWING_MARGIN = 50;
 }
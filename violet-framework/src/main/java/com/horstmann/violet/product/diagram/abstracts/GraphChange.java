@@ -0,0 +1,106 @@
+/*
+ Violet - A program for editing UML diagrams.
+
+ Copyright (C) 2007 Cay S. Horstmann (http://horstmann.com)
+ Alexandre de Pellegrin (http://alexdp.free.fr);
+
+ This program is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.
+
+ This program is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ GNU General Public License for more details.
+
+ You should have received a copy of the GNU General Public License
+ along with this program; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package com.horstmann.violet.product.diagram.abstracts;
+
+import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
+import com.horstmann.violet.product.diagram.abstracts.node.INode;
+
+/**
+ * A single change made on a graph, sent to {@link IGraphListener}s
+ */
+public class GraphChange
+{
+    /**
+     * Kinds of change
+     */
+    public enum Type
+    {
+        NODE_ADDED, NODE_REMOVED, NODE_MOVED, NODE_RESIZED, NODE_REPARENTED, EDGE_CONNECTED, EDGE_REMOVED, EDGE_REROUTED, PROPERTY_CHANGED
+    }
+
+    /**
+     * Constructs a change made on a node
+     * 
+     * @param type kind of change
+     * @param node changed node
+     */
+    public GraphChange(Type type, INode node)
+    {
+        this(type, node, null);
+    }
+
+    /**
+     * Constructs a change made on an edge
+     * 
+     * @param type kind of change
+     * @param edge changed edge
+     */
+    public GraphChange(Type type, IEdge edge)
+    {
+        this(type, null, edge);
+    }
+
+    private GraphChange(Type type, INode node, IEdge edge)
+    {
+        if (null == type)
+        {
+            throw new NullPointerException("type can't be null");
+        }
+        this.type = type;
+        this.node = node;
+        this.edge = edge;
+    }
+
+    /**
+     * @return kind of change
+     */
+    public Type getType()
+    {
+        return this.type;
+    }
+
+    /**
+     * @return changed node or null if this change concerns an edge
+     */
+    public INode getNode()
+    {
+        return this.node;
+    }
+
+    /**
+     * @return changed edge or null if this change concerns a node
+     */
+    public IEdge getEdge()
+    {
+        return this.edge;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.type + " " + (null != this.node ? this.node : this.edge);
+    }
+
+    private final Type type;
+    private final INode node;
+    private final IEdge edge;
+}
@@ -46,6 +46,15 @@ public interface IGraph
     public abstract Collection<IEdge> getAllEdges();
 
 
+    /**
+     * Gets the edges starting or ending at the given node.
+     * 
+     * @param node a node of this graph
+     * @return a new list of the connected edges, in the order they were connected
+     */
+    public abstract List<IEdge> getConnectedEdges(INode node);
+
+
     /**
      * Removes one or more edges from this graph.
      * 
@@ -102,6 +111,14 @@ public interface IGraph
      */
     public abstract INode findNode(Point2D p);
 
+    /**
+     * Finds nodes whose bounds on graph intersect the given area.
+     * 
+     * @param area a rectangle on graph
+     * @return matching nodes in the same order as getAllNodes()
+     */
+    public abstract List<INode> findNodes(Rectangle2D area);
+
     /**
      * Finds an adge by its id. This internal method should only be used by network features (for the moment because
      * edge ids are still generated automatically)
@@ -120,6 +137,14 @@ public interface IGraph
      */
     public abstract IEdge findEdge(Point2D p);
 
+    /**
+     * Finds edges whose bounds intersect the given area.
+     * 
+     * @param area a rectangle on graph
+     * @return matching edges in the same order as getAllEdges()
+     */
+    public abstract List<IEdge> findEdges(Rectangle2D area);
+
     /**
      * Draws the graph
      * 
@@ -127,6 +152,15 @@ public interface IGraph
      */
     public abstract void draw(Graphics2D g2);
 
+    /**
+     * Draws the graph elements which may appear in the given area. Z-order is the same as when drawing the whole
+     * graph.
+     * 
+     * @param g2 the graphics context
+     * @param visibleArea area to draw, in graph coordinates, or null to draw everything
+     */
+    public abstract void draw(Graphics2D g2, Rectangle2D visibleArea);
+
 
     /**
      * Gets the smallest rectangle enclosing the graph
@@ -155,6 +189,37 @@ public interface IGraph
      * @param newGrid
      */
     public void setGridSticker(IGridSticker newCorrector);
+
+
+    /**
+     * Registers a listener notified of the changes made on this graph
+     * 
+     * @param listener
+     */
+    public void addGraphListener(IGraphListener listener);
+
+
+    /**
+     * Unregisters a listener
+     * 
+     * @param listener
+     */
+    public void removeGraphListener(IGraphListener listener);
+
+
+    /**
+     * Starts a transaction. Changes are queued and sent to listeners in one batch when the matching
+     * endTransaction() is called. Transactions may be nested.
+     */
+    public void beginTransaction();
+
+
+    /**
+     * Ends the current transaction and, if it is the outermost one, sends the queued changes to listeners.
+     * 
+     * @throws IllegalStateException if no transaction is in progress
+     */
+    public void endTransaction();
     
     
 }
\ No newline at end of file
@@ -0,0 +1,329 @@
+/*
+ Violet - A program for editing UML diagrams.
+
+ Copyright (C) 2007 Cay S. Horstmann (http://horstmann.com)
+ Alexandre de Pellegrin (http://alexdp.free.fr);
+
+ This program is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.
+
+ This program is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ GNU General Public License for more details.
+
+ You should have received a copy of the GNU General Public License
+ along with this program; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package com.horstmann.violet.product.diagram.abstracts;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid of buckets used to narrow down hit tests on graph elements.
+ * Elements keep the order in which they were added, so queries return
+ * candidates in the same precedence as a plain scan over the source list.
+ * Queries update internal state, so an index must not be shared between threads.
+ *
+ * @param <T> type of indexed element
+ */
+public class SpatialIndex<T>
+{
+    /**
+     * Constructs an empty index with the default cell size
+     */
+    public SpatialIndex()
+    {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Constructs an empty index
+     *
+     * @param cellSize width and height of a bucket
+     */
+    public SpatialIndex(double cellSize)
+    {
+        if (0 >= cellSize)
+        {
+            throw new IllegalArgumentException("cellSize must be positive");
+        }
+        this.cellSize = cellSize;
+        this.cells = new HashMap<Long, List<Entry<T>>>();
+        this.oversized = new ArrayList<Entry<T>>();
+        this.entries = new ArrayList<Entry<T>>();
+        this.entriesByElement = new IdentityHashMap<T, Entry<T>>();
+    }
+
+    /**
+     * Registers an element. Elements added first come first in query results.
+     *
+     * @param element indexed element
+     * @param bounds element bounds on graph
+     */
+    public void add(T element, Rectangle2D bounds)
+    {
+        Entry<T> entry = new Entry<T>(element, bounds, entries.size());
+        entries.add(entry);
+        if (!entriesByElement.containsKey(element))
+        {
+            entriesByElement.put(element, entry);
+        }
+        insert(entry);
+    }
+
+    /**
+     * Moves an element to new bounds. It keeps its place in query results. Only the buckets it leaves and enters are
+     * updated.
+     *
+     * @param element indexed element
+     * @param bounds new element bounds on graph
+     * @return false if the element is not indexed
+     */
+    public boolean update(T element, Rectangle2D bounds)
+    {
+        Entry<T> entry = entriesByElement.get(element);
+        if (null == entry)
+        {
+            return false;
+        }
+        remove(entry);
+        entry.bounds = bounds;
+        insert(entry);
+        return true;
+    }
+
+    private void insert(Entry<T> entry)
+    {
+        int minX = toCell(entry.bounds.getMinX());
+        int minY = toCell(entry.bounds.getMinY());
+        int maxX = toCell(entry.bounds.getMaxX());
+        int maxY = toCell(entry.bounds.getMaxY());
+        if ((long) (maxX - minX + 1) * (maxY - minY + 1) > MAX_CELLS_PER_ELEMENT)
+        {
+            insertInOrder(oversized, entry);
+            return;
+        }
+        for (int x = minX; x <= maxX; ++x)
+        {
+            for (int y = minY; y <= maxY; ++y)
+            {
+                Long key = toKey(x, y);
+                List<Entry<T>> cell = cells.get(key);
+                if (null == cell)
+                {
+                    cell = new ArrayList<Entry<T>>();
+                    cells.put(key, cell);
+                }
+                insertInOrder(cell, entry);
+            }
+        }
+    }
+
+    private void remove(Entry<T> entry)
+    {
+        int minX = toCell(entry.bounds.getMinX());
+        int minY = toCell(entry.bounds.getMinY());
+        int maxX = toCell(entry.bounds.getMaxX());
+        int maxY = toCell(entry.bounds.getMaxY());
+        if ((long) (maxX - minX + 1) * (maxY - minY + 1) > MAX_CELLS_PER_ELEMENT)
+        {
+            oversized.remove(entry);
+            return;
+        }
+        for (int x = minX; x <= maxX; ++x)
+        {
+            for (int y = minY; y <= maxY; ++y)
+            {
+                Long key = toKey(x, y);
+                List<Entry<T>> cell = cells.get(key);
+                if (null != cell)
+                {
+                    cell.remove(entry);
+                    if (cell.isEmpty())
+                    {
+                        cells.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts an entry at its place in a bucket, which is sorted by insertion order
+     */
+    private static <T> void insertInOrder(List<Entry<T>> cell, Entry<T> entry)
+    {
+        if (cell.isEmpty() || cell.get(cell.size() - 1).order < entry.order)
+        {
+            cell.add(entry);
+            return;
+        }
+        int position = Collections.binarySearch(cell, entry);
+        cell.add(position < 0 ? -position - 1 : position, entry);
+    }
+
+    /**
+     * Lists elements whose indexed bounds contain the given point
+     *
+     * @param point point on graph
+     * @return candidates in insertion order
+     */
+    public List<T> getCandidates(Point2D point)
+    {
+        List<Entry<T>> cell = cells.get(toKey(toCell(point.getX()), toCell(point.getY())));
+        if (null == cell)
+        {
+            cell = Collections.emptyList();
+        }
+        List<T> result = new ArrayList<T>();
+        int i = 0;
+        int j = 0;
+        while (i < cell.size() || j < oversized.size())
+        {
+            Entry<T> entry;
+            if (j >= oversized.size() || (i < cell.size() && cell.get(i).order < oversized.get(j).order))
+            {
+                entry = cell.get(i++);
+            }
+            else
+            {
+                entry = oversized.get(j++);
+            }
+            if (entry.contains(point))
+            {
+                result.add(entry.element);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Lists elements whose indexed bounds intersect the given rectangle
+     *
+     * @param area rectangle on graph
+     * @return candidates in insertion order
+     */
+    public List<T> getCandidates(Rectangle2D area)
+    {
+        int minX = toCell(area.getMinX());
+        int minY = toCell(area.getMinY());
+        int maxX = toCell(area.getMaxX());
+        int maxY = toCell(area.getMaxY());
+
+        // Stamps avoid both duplicates and a pass over every entry for small areas
+        int stamp = ++queryStamp;
+        List<Entry<T>> found = new ArrayList<Entry<T>>();
+        if ((long) (maxX - minX + 1) * (maxY - minY + 1) > cells.size())
+        {
+            markIntersecting(entries, area, stamp, found);
+        }
+        else
+        {
+            for (int x = minX; x <= maxX; ++x)
+            {
+                for (int y = minY; y <= maxY; ++y)
+                {
+                    List<Entry<T>> cell = cells.get(toKey(x, y));
+                    if (null != cell)
+                    {
+                        markIntersecting(cell, area, stamp, found);
+                    }
+                }
+            }
+            markIntersecting(oversized, area, stamp, found);
+            Collections.sort(found);
+        }
+
+        List<T> result = new ArrayList<T>(found.size());
+        for (Entry<T> entry : found)
+        {
+            result.add(entry.element);
+        }
+        return result;
+    }
+
+    /**
+     * @return number of indexed elements
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    private void markIntersecting(List<Entry<T>> candidates, Rectangle2D area, int stamp, List<Entry<T>> found)
+    {
+        for (Entry<T> entry : candidates)
+        {
+            if (entry.stamp != stamp && entry.intersects(area))
+            {
+                entry.stamp = stamp;
+                found.add(entry);
+            }
+        }
+    }
+
+    private int toCell(double coordinate)
+    {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static Long toKey(int x, int y)
+    {
+        return Long.valueOf(((long) x << 32) | (y & 0xffffffffL));
+    }
+
+    private static class Entry<T> implements Comparable<Entry<T>>
+    {
+        Entry(T element, Rectangle2D bounds, int order)
+        {
+            this.element = element;
+            this.bounds = bounds;
+            this.order = order;
+        }
+
+        boolean contains(Point2D point)
+        {
+            return point.getX() >= bounds.getMinX() && point.getX() <= bounds.getMaxX()
+                    && point.getY() >= bounds.getMinY() && point.getY() <= bounds.getMaxY();
+        }
+
+        boolean intersects(Rectangle2D area)
+        {
+            return area.getMaxX() >= bounds.getMinX() && area.getMinX() <= bounds.getMaxX()
+                    && area.getMaxY() >= bounds.getMinY() && area.getMinY() <= bounds.getMaxY();
+        }
+
+        @Override
+        public int compareTo(Entry<T> other)
+        {
+            return order < other.order ? -1 : (order == other.order ? 0 : 1);
+        }
+
+        final T element;
+        Rectangle2D bounds;
+        final int order;
+        int stamp;
+    }
+
+    private final double cellSize;
+    private final Map<Long, List<Entry<T>>> cells;
+    private final List<Entry<T>> oversized;
+    private final List<Entry<T>> entries;
+    private final Map<T, Entry<T>> entriesByElement;
+    private int queryStamp;
+
+    public static final double DEFAULT_CELL_SIZE = 128;
+    private static final int MAX_CELLS_PER_ELEMENT = 256;
+}
@@ -24,8 +24,11 @@ package com.horstmann.violet.product.diagram.abstracts.edge;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
 
+import com.horstmann.violet.product.diagram.abstracts.AbstractGraph;
 import com.horstmann.violet.product.diagram.abstracts.Direction;
+import com.horstmann.violet.product.diagram.abstracts.GraphChange;
 import com.horstmann.violet.product.diagram.abstracts.IGraph;
 import com.horstmann.violet.product.diagram.abstracts.IGridSticker;
 import com.horstmann.violet.product.diagram.abstracts.Id;
@@ -184,6 +187,8 @@ public abstract class AbstractEdge implements IEdge
         }
         this.transitionPoints = transitionPoints;
         refreshContactPoints();
+        onGeometryChanged();
+        fireGraphChange(GraphChange.Type.EDGE_REROUTED);
     }
     
     @Override
@@ -191,6 +196,20 @@ public abstract class AbstractEdge implements IEdge
     {
         return this.transitionPoints;
     }
+
+    @Override
+    public void moveTransitionPoint(int index, Point2D location)
+    {
+        Point2D transitionPoint = this.transitionPoints[index];
+        if (transitionPoint.equals(location))
+        {
+            return;
+        }
+        transitionPoint.setLocation(location);
+        refreshContactPoints();
+        onGeometryChanged();
+        fireGraphChange(GraphChange.Type.EDGE_REROUTED);
+    }
     
     @Override
     public boolean isTransitionPointsSupported()
@@ -275,6 +294,10 @@ public abstract class AbstractEdge implements IEdge
     public final void setId(Id id)
     {
         this.id = id;
+        if (null != startNode && startNode.getGraph() instanceof AbstractGraph)
+        {
+            ((AbstractGraph) startNode.getGraph()).invalidateIdIndex();
+        }
     }
 
     @Override
@@ -301,6 +324,42 @@ public abstract class AbstractEdge implements IEdge
     public final void incrementRevision()
     {
         ++this.revision;
+        onGeometryChanged();
+        fireGraphChange(GraphChange.Type.PROPERTY_CHANGED);
+    }
+
+    /**
+     * Notifies the graph that this edge path may have changed
+     */
+    protected void onGeometryChanged()
+    {
+        if (null == startNode)
+        {
+            return;
+        }
+        IGraph graph = startNode.getGraph();
+        if (graph instanceof AbstractGraph)
+        {
+            ((AbstractGraph) graph).onEdgeGeometryChanged(this);
+        }
+    }
+
+    /**
+     * Sends a change of this edge to the listeners of the graph
+     *
+     * @param type kind of change
+     */
+    protected void fireGraphChange(GraphChange.Type type)
+    {
+        if (null == startNode)
+        {
+            return;
+        }
+        IGraph graph = startNode.getGraph();
+        if (graph instanceof AbstractGraph)
+        {
+            ((AbstractGraph) graph).fireEdgeChange(type, this);
+        }
     }
 
 
@@ -314,6 +373,30 @@ public abstract class AbstractEdge implements IEdge
         };
     }
 
+    /**
+     * Computes the contact points again. The graph calls it whenever the nodes this edge depends on moved, so that
+     * drawing never changes the geometry. A computation which moves the points counts as a geometry change, so that
+     * the edges sharing a side of a node with this one are routed again.
+     *
+     * @return true if the contact points moved
+     */
+    public final boolean reroute()
+    {
+        if (null == startNode || null == endNode)
+        {
+            return false;
+        }
+        Point2D[] previousContactPoints = this.contactPoints;
+        updateContactPoints();
+        if (Arrays.equals(previousContactPoints, this.contactPoints))
+        {
+            return false;
+        }
+        onGeometryChanged();
+        fireGraphChange(GraphChange.Type.EDGE_REROUTED);
+        return true;
+    }
+
     private void refreshContactPoints()
     {
         if(null != startNode && null != endNode && null != startLocation && null != endLocation)
@@ -110,6 +110,13 @@ public interface IEdge extends Serializable, Cloneable, IIdentifiable
      * @return transition points for edge which supports free path
      */
     Point2D[] getTransitionPoints();
+
+    /**
+     * Moves one of the transition points
+     * @param index index of the point among {@link #getTransitionPoints()}
+     * @param location new location of the point
+     */
+    void moveTransitionPoint(int index, Point2D location);
     
     /**
      * @return true if the edge supports free path
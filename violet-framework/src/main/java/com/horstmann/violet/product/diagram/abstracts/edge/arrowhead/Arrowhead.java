@@ -1,5 +1,7 @@
 package com.horstmann.violet.product.diagram.abstracts.edge.arrowhead;
 
+import com.horstmann.violet.framework.graphics.LevelOfDetail;
+
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.GeneralPath;
@@ -26,7 +28,7 @@ public class Arrowhead
     }
 
     /**
-     * Draws the arrowhead.
+     * Draws the arrowhead, unless edges are simplified at the current level of detail.
      *
      * @param graphics the graphics context
      * @param p a point on the axis of the arrow head
@@ -34,6 +36,10 @@ public class Arrowhead
      */
     public final void draw(Graphics2D graphics, Point2D p, Point2D q)
     {
+        if(LevelOfDetail.simplifiesEdges(graphics))
+        {
+            return;
+        }
         Color oldColor = graphics.getColor();
 
         GeneralPath path = getPath();
@@ -27,11 +27,15 @@ import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.horstmann.violet.framework.graphics.content.Content;
 import com.horstmann.violet.product.diagram.abstracts.AbstractGraph;
 import com.horstmann.violet.product.diagram.abstracts.Direction;
+import com.horstmann.violet.product.diagram.abstracts.GraphChange;
 import com.horstmann.violet.product.diagram.abstracts.IGraph;
 import com.horstmann.violet.product.diagram.abstracts.Id;
 import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
@@ -89,9 +93,34 @@ public abstract class AbstractNode implements INode
     @Override
     public final void reconstruction()
     {
-        beforeReconstruction();
-        createContentStructure();
-        afterReconstruction();
+        // Contents are laid out once, when the whole structure is built
+        Content.beginLayout();
+        try
+        {
+            beforeReconstruction();
+            createContentStructure();
+            afterReconstruction();
+        }
+        finally
+        {
+            Content.endLayout();
+        }
+    }
+
+    /**
+     * Creates the content structure from a constructor. Contents are laid out once, when the whole structure is built.
+     */
+    protected final void buildContentStructure()
+    {
+        Content.beginLayout();
+        try
+        {
+            createContentStructure();
+        }
+        finally
+        {
+            Content.endLayout();
+        }
     }
 
     protected void beforeReconstruction()
@@ -130,7 +159,34 @@ public abstract class AbstractNode implements INode
     @Override
     public void draw(Graphics2D graphics)
     {
-        getContent().draw(graphics, getLocationOnGraph());
+        if (isSpriteCacheable())
+        {
+            this.sprite = NodeSpriteCache.getInstance().draw(this.sprite, getContent(), graphics, getLocationOnGraph());
+        }
+        else
+        {
+            getContent().draw(graphics, getLocationOnGraph());
+        }
+    }
+
+    /**
+     * Tells whether the content of this node may be drawn from an image kept by {@link NodeSpriteCache}. Nodes whose
+     * drawing depends on anything but their own content, properties and colors must not turn this on.
+     *
+     * @return false by default
+     */
+    protected boolean isSpriteCacheable()
+    {
+        return false;
+    }
+
+    /**
+     * Drops the image this node was last drawn from
+     */
+    protected void invalidateSprite()
+    {
+        NodeSpriteCache.getInstance().remove(this.sprite);
+        this.sprite = null;
     }
 
     @Override
@@ -145,21 +201,10 @@ public abstract class AbstractNode implements INode
         return getContent().contains(p);
     }
 
-    /**
-     * @return currently connected edges
-     */
-    protected List<IEdge> getConnectedEdges()
-    {
-        List<IEdge> connectedEdges = new ArrayList<IEdge>();
-        IGraph currentGraph = getGraph();
-        for (IEdge anEdge : currentGraph.getAllEdges()) {
-            INode start = anEdge.getStartNode();
-            INode end = anEdge.getEndNode();
-            if (this.equals(start) || this.equals(end)) {
-                connectedEdges.add(anEdge);
-            }
-        }
-        return connectedEdges;
+    @Override
+    public List<IEdge> getConnectedEdges()
+    {
+        return getGraph().getConnectedEdges(this);
     }
 
     @Override
@@ -189,7 +234,14 @@ public abstract class AbstractNode implements INode
         if (null == point) {
             throw new NullPointerException("Location can't be null");
         }
+        // Callers may move the current location object in place before setting it back
+        boolean isMoved = point == this.location || !point.equals(this.location);
         this.location = point;
+        if (isMoved)
+        {
+            onGeometryChanged();
+            fireGraphChange(GraphChange.Type.NODE_MOVED, this);
+        }
 
         if (null != parent) {
             if (parent instanceof AbstractNode) {
@@ -201,6 +253,42 @@ public abstract class AbstractNode implements INode
     protected void onChildChangeLocation(INode child) {
     }
 
+    /**
+     * Notifies the graph that this node may have moved or been resized
+     */
+    protected void onGeometryChanged()
+    {
+        if (this.graph instanceof AbstractGraph)
+        {
+            ((AbstractGraph) this.graph).onNodeGeometryChanged(this);
+        }
+    }
+
+    /**
+     * Sends a change to the listeners of the graph
+     *
+     * @param type kind of change
+     * @param node changed node
+     */
+    protected void fireGraphChange(GraphChange.Type type, INode node)
+    {
+        if (this.graph instanceof AbstractGraph)
+        {
+            ((AbstractGraph) this.graph).fireNodeChange(type, node);
+        }
+    }
+
+    /**
+     * Notifies the graph that children of this node changed
+     */
+    protected void onStructureChanged()
+    {
+        if (this.graph instanceof AbstractGraph)
+        {
+            ((AbstractGraph) this.graph).invalidateNodeHierarchy();
+        }
+    }
+
     @Override
     public Id getId() {
         return this.id;
@@ -212,22 +300,22 @@ public abstract class AbstractNode implements INode
             throw new NullPointerException("Id can't be null");
         }
         this.id = id;
+        if (this.graph instanceof AbstractGraph)
+        {
+            ((AbstractGraph) this.graph).invalidateIdIndex();
+        }
     }
 
     /**
      * List edges connected to the same side
      *
-     * @param edge
+     * @param cardinalDirectionToSearch side of this node
      * @return ordered list of edges
      */
-    private List<IEdge> getEdgesOnSameSide(IEdge edge)
+    private List<IEdge> getEdgesOnSide(Direction cardinalDirectionToSearch)
     {
         // Step 1 : look for edges
         List<IEdge> result = new ArrayList<IEdge>();
-        Direction d = edge.getDirection(this);
-
-        if (d == null) return result;
-        Direction cardinalDirectionToSearch = d.getNearestCardinalDirection();
         for (IEdge anEdge : getConnectedEdges()) {
             Direction edgeDirection = anEdge.getDirection(this);
             Direction nearestCardinalDirection = edgeDirection.getNearestCardinalDirection();
@@ -267,14 +355,47 @@ public abstract class AbstractNode implements INode
         return result;
     }
 
+    /**
+     * Returns the slots of the given side. They are computed once per geometry revision of the graph
+     * and shared by all the edges connected to that side.
+     *
+     * @param cardinalDirection side of this node
+     * @return ordered edges on this side
+     */
+    private SideSlots getSideSlots(Direction cardinalDirection)
+    {
+        if (!(this.graph instanceof AbstractGraph))
+        {
+            return new SideSlots(getEdgesOnSide(cardinalDirection));
+        }
+        AbstractGraph abstractGraph = (AbstractGraph) this.graph;
+        long revision = abstractGraph.getGeometryRevision();
+        if (null == this.sideSlots || this.sideSlotsGraph != abstractGraph || this.sideSlotsRevision != revision)
+        {
+            this.sideSlots = new HashMap<Direction, SideSlots>();
+            this.sideSlotsGraph = abstractGraph;
+            this.sideSlotsRevision = revision;
+        }
+        SideSlots slots = this.sideSlots.get(cardinalDirection);
+        if (null == slots)
+        {
+            slots = new SideSlots(getEdgesOnSide(cardinalDirection));
+            // Computing directions may move nodes. Such slots are only valid for this call.
+            if (revision == abstractGraph.getGeometryRevision())
+            {
+                this.sideSlots.put(cardinalDirection, slots);
+            }
+        }
+        return slots;
+    }
 
     public Point2D getConnectionPoint(IEdge edge)
     {
-        List<IEdge> edgesOnSameSide = getEdgesOnSameSide(edge);
+        Direction edgeDirection = edge.getDirection(this);
+        SideSlots edgesOnSameSide = getSideSlots(edgeDirection.getNearestCardinalDirection());
         int position = edgesOnSameSide.indexOf(edge);
         int size = edgesOnSameSide.size();
 
-        Direction edgeDirection = edge.getDirection(this);
         Point2D startingNodeLocation = getLocation();
 
         double x = startingNodeLocation.getX();
@@ -320,6 +441,29 @@ public abstract class AbstractNode implements INode
     public void incrementRevision() {
         int i = getRevision().intValue() + 1;
         this.revision = new Integer(i);
+        invalidateSprite();
+        onGeometryChanged();
+        if (this.graph instanceof AbstractGraph && ((AbstractGraph) this.graph).hasGraphListeners())
+        {
+            AbstractGraph abstractGraph = (AbstractGraph) this.graph;
+            abstractGraph.beginTransaction();
+            try
+            {
+                // Sizes are compared from one revision to the next one
+                Rectangle2D bounds = getBounds();
+                if (null != this.revisionBounds
+                        && (this.revisionBounds.getWidth() != bounds.getWidth() || this.revisionBounds.getHeight() != bounds.getHeight()))
+                {
+                    abstractGraph.fireNodeChange(GraphChange.Type.NODE_RESIZED, this);
+                }
+                this.revisionBounds = bounds;
+                abstractGraph.fireNodeChange(GraphChange.Type.PROPERTY_CHANGED, this);
+            }
+            finally
+            {
+                abstractGraph.endTransaction();
+            }
+        }
     }
 
     @Override
@@ -343,6 +487,8 @@ public abstract class AbstractNode implements INode
     {
         if (node.getParent() != this) return;
         getChildren().remove(node);
+        onStructureChanged();
+        fireGraphChange(GraphChange.Type.NODE_REPARENTED, node);
     }
 
     @Override
@@ -391,6 +537,8 @@ public abstract class AbstractNode implements INode
         getChildren().add(index, node);
         node.setParent(this);
         node.setGraph(getGraph());
+        onStructureChanged();
+        fireGraphChange(GraphChange.Type.NODE_REPARENTED, node);
         return true;
     }
 
@@ -415,6 +563,10 @@ public abstract class AbstractNode implements INode
     public void setZ(int z)
     {
         this.z = z;
+        if (this.graph instanceof AbstractGraph)
+        {
+            ((AbstractGraph) this.graph).invalidateDrawOrder();
+        }
     }
 
     @Override
@@ -454,10 +606,45 @@ public abstract class AbstractNode implements INode
         this.content = content;
     }
 
+    /**
+     * Ordered edges connected to one side of a node
+     */
+    private static class SideSlots
+    {
+        SideSlots(List<IEdge> edges)
+        {
+            this.size = edges.size();
+            this.positions = new IdentityHashMap<IEdge, Integer>();
+            for (int i = edges.size() - 1; i >= 0; --i)
+            {
+                this.positions.put(edges.get(i), i);
+            }
+        }
+
+        int indexOf(IEdge edge)
+        {
+            Integer position = this.positions.get(edge);
+            return null == position ? -1 : position;
+        }
+
+        int size()
+        {
+            return this.size;
+        }
+
+        private final int size;
+        private final Map<IEdge, Integer> positions;
+    }
+
     private transient Content content;
 
     private transient IGraph graph;
     private transient int z;
+    private transient Map<Direction, SideSlots> sideSlots;
+    private transient AbstractGraph sideSlotsGraph;
+    private transient long sideSlotsRevision;
+    private transient Rectangle2D revisionBounds;
+    private transient NodeSpriteCache.Sprite sprite;
 
     /** Node's current id (unique in all the graph) */
     private Id id;
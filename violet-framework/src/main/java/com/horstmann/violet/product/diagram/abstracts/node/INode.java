@@ -58,6 +58,13 @@ public interface INode extends Serializable, Cloneable, IIdentifiable, Connected
      */
     void removeConnection(IEdge edge);
 
+    /**
+     * Lists the edges starting or ending at this node_old.
+     * 
+     * @return currently connected edges
+     */
+    List<IEdge> getConnectedEdges();
+
     /**
      * Adds a node_old as a child node_old to this node_old.
      * 
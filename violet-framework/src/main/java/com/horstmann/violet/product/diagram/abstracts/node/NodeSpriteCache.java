@@ -0,0 +1,279 @@
+/*
+ Violet - A program for editing UML diagrams.
+
+ Copyright (C) 2007 Cay S. Horstmann (http://horstmann.com)
+ Alexandre de Pellegrin (http://alexdp.free.fr);
+
+ This program is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.
+
+ This program is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ GNU General Public License for more details.
+
+ You should have received a copy of the GNU General Public License
+ along with this program; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package com.horstmann.violet.product.diagram.abstracts.node;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Stroke;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.horstmann.violet.framework.graphics.LevelOfDetail;
+import com.horstmann.violet.framework.graphics.content.Content;
+
+/**
+ * Keeps node contents rasterized at the scale they were last drawn at, so that painting them again only copies an
+ * image. Sprites are shared by every node and the least recently drawn ones are released once they use more pixels
+ * than allowed.
+ *
+ * Sprites are only used on graphics contexts where {@link #KEY_NODE_SPRITES} is on. Other contexts, such as export and
+ * printing, always get vector drawings.
+ */
+public class NodeSpriteCache
+{
+    /**
+     * Constructs a cache
+     *
+     * @param maxPixels number of pixels all sprites may use together
+     */
+    public NodeSpriteCache(long maxPixels)
+    {
+        if (0 >= maxPixels)
+        {
+            throw new IllegalArgumentException("maxPixels must be positive");
+        }
+        this.maxPixels = maxPixels;
+    }
+
+    /**
+     * @return the cache shared by all nodes
+     */
+    public static NodeSpriteCache getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Draws a node content at the given location, through its sprite when possible
+     *
+     * @param sprite sprite the content was last drawn with, or null
+     * @param content node content
+     * @param graphics graphics context
+     * @param location content location on graph
+     * @return sprite to pass on the next call
+     */
+    public Sprite draw(Sprite sprite, Content content, Graphics2D graphics, Point2D location)
+    {
+        AffineTransform transform = graphics.getTransform();
+        int transformType = transform.getType() & ~(AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_UNIFORM_SCALE);
+        if (!Boolean.TRUE.equals(graphics.getRenderingHint(KEY_NODE_SPRITES)) || 0 != transformType
+                || 0 >= transform.getScaleX())
+        {
+            content.draw(graphics, location);
+            return sprite;
+        }
+        double scale = transform.getScaleX();
+        double deviceX = transform.getTranslateX() + location.getX() * scale;
+        double deviceY = transform.getTranslateY() + location.getY() * scale;
+        int pixelX = (int) Math.floor(deviceX);
+        int pixelY = (int) Math.floor(deviceY);
+        // Sprites are drawn on whole pixels, so they are rendered with the remaining offset
+        double offsetX = deviceX - pixelX;
+        double offsetY = deviceY - pixelY;
+        int margin = (int) Math.ceil(MARGIN * scale);
+        int width = (int) Math.ceil(content.getWidth() * scale + offsetX) + 2 * margin;
+        int height = (int) Math.ceil(content.getHeight() * scale + offsetY) + 2 * margin;
+        if ((long) width * height > this.maxPixels / 4)
+        {
+            content.draw(graphics, location);
+            return sprite;
+        }
+
+        BufferedImage image = null;
+        if (null != sprite && sprite.matches(content, scale, offsetX, offsetY, graphics))
+        {
+            image = touch(sprite);
+        }
+        if (null == image)
+        {
+            remove(sprite);
+            image = graphics.getDeviceConfiguration().createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+            Graphics2D spriteGraphics = image.createGraphics();
+            try
+            {
+                spriteGraphics.setRenderingHints(graphics.getRenderingHints());
+                spriteGraphics.setStroke(graphics.getStroke());
+                spriteGraphics.setFont(graphics.getFont());
+                spriteGraphics.setColor(graphics.getColor());
+                spriteGraphics.translate(margin + offsetX, margin + offsetY);
+                spriteGraphics.scale(scale, scale);
+                content.draw(spriteGraphics);
+            }
+            finally
+            {
+                spriteGraphics.dispose();
+            }
+            sprite = new Sprite(content, scale, offsetX, offsetY, graphics, image);
+            add(sprite);
+        }
+
+        graphics.setTransform(new AffineTransform());
+        graphics.drawImage(image, pixelX - margin, pixelY - margin, null);
+        graphics.setTransform(transform);
+        return sprite;
+    }
+
+    /**
+     * Releases a sprite
+     *
+     * @param sprite released sprite, may be null
+     */
+    public synchronized void remove(Sprite sprite)
+    {
+        if (null != sprite && null != this.sprites.remove(sprite))
+        {
+            release(sprite);
+        }
+    }
+
+    /**
+     * Releases every sprite
+     */
+    public synchronized void clear()
+    {
+        for (Sprite aSprite : this.sprites.keySet())
+        {
+            aSprite.image = null;
+        }
+        this.sprites.clear();
+        this.pixels = 0;
+    }
+
+    /**
+     * @return number of pixels used by the sprites
+     */
+    public synchronized long getPixels()
+    {
+        return this.pixels;
+    }
+
+    private synchronized BufferedImage touch(Sprite sprite)
+    {
+        return null == this.sprites.get(sprite) ? null : sprite.image;
+    }
+
+    private synchronized void add(Sprite sprite)
+    {
+        this.sprites.put(sprite, sprite);
+        this.pixels += sprite.getPixels();
+        Iterator<Sprite> leastRecentlyDrawn = this.sprites.keySet().iterator();
+        while (this.pixels > this.maxPixels && leastRecentlyDrawn.hasNext())
+        {
+            Sprite eldest = leastRecentlyDrawn.next();
+            leastRecentlyDrawn.remove();
+            release(eldest);
+        }
+    }
+
+    private void release(Sprite sprite)
+    {
+        this.pixels -= sprite.getPixels();
+        sprite.image = null;
+    }
+
+    /**
+     * Rasterized content, together with what it was rendered from
+     */
+    public static class Sprite
+    {
+        Sprite(Content content, double scale, double offsetX, double offsetY, Graphics2D graphics, BufferedImage image)
+        {
+            this.content = content;
+            this.refreshCount = content.getRefreshCount();
+            this.width = content.getWidth();
+            this.height = content.getHeight();
+            this.scale = scale;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+            this.stroke = graphics.getStroke();
+            this.font = graphics.getFont();
+            this.color = graphics.getColor();
+            this.levelOfDetail = graphics.getRenderingHint(LevelOfDetail.KEY_LEVEL_OF_DETAIL);
+            this.image = image;
+        }
+
+        boolean matches(Content content, double scale, double offsetX, double offsetY, Graphics2D graphics)
+        {
+            return this.content == content && this.refreshCount == content.getRefreshCount()
+                    && this.width == content.getWidth() && this.height == content.getHeight() && this.scale == scale
+                    && this.offsetX == offsetX && this.offsetY == offsetY && equal(this.stroke, graphics.getStroke())
+                    && equal(this.font, graphics.getFont()) && equal(this.color, graphics.getColor())
+                    && equal(this.levelOfDetail, graphics.getRenderingHint(LevelOfDetail.KEY_LEVEL_OF_DETAIL));
+        }
+
+        long getPixels()
+        {
+            return (long) this.image.getWidth() * this.image.getHeight();
+        }
+
+        private static boolean equal(Object first, Object second)
+        {
+            return null == first ? null == second : first.equals(second);
+        }
+
+        private final Content content;
+        private final long refreshCount;
+        private final double width;
+        private final double height;
+        private final double scale;
+        private final double offsetX;
+        private final double offsetY;
+        private final Stroke stroke;
+        private final Font font;
+        private final Color color;
+        private final Object levelOfDetail;
+        private BufferedImage image;
+    }
+
+    /**
+     * Rendering hint turning sprites on. Its values are {@link Boolean} instances.
+     */
+    public static final RenderingHints.Key KEY_NODE_SPRITES = new RenderingHints.Key(0x5350)
+    {
+        @Override
+        public boolean isCompatibleValue(Object value)
+        {
+            return value instanceof Boolean;
+        }
+    };
+
+    /** Sprites, least recently drawn first */
+    private final Map<Sprite, Sprite> sprites = new LinkedHashMap<Sprite, Sprite>(16, 0.75f, true);
+
+    private final long maxPixels;
+
+    private long pixels;
+
+    /** Room left around contents for strokes, on graph */
+    private static final double MARGIN = 2;
+
+    private static final long DEFAULT_MAX_PIXELS = 8L * 1024 * 1024;
+
+    private static final NodeSpriteCache INSTANCE = new NodeSpriteCache(DEFAULT_MAX_PIXELS);
+}
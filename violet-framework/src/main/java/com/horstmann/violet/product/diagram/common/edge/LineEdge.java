@@ -1,11 +1,13 @@
 package com.horstmann.violet.product.diagram.common.edge;
 
+import com.horstmann.violet.framework.graphics.LevelOfDetail;
 import com.horstmann.violet.product.diagram.abstracts.edge.ShapeEdge;
 import com.horstmann.violet.product.diagram.property.BentStyleChoiceList;
 import com.horstmann.violet.product.diagram.property.LineStyleChoiceList;
 import com.horstmann.violet.product.diagram.property.choiceList.ChoiceList;
 import com.horstmann.violet.product.diagram.abstracts.Direction;
 import com.horstmann.violet.product.diagram.abstracts.edge.bentstyle.BentStyle;
+import com.horstmann.violet.product.diagram.abstracts.edge.linestyle.LineStyle;
 
 import java.awt.*;
 import java.awt.geom.GeneralPath;
@@ -80,13 +82,12 @@ public abstract class LineEdge extends ShapeEdge
      */
     public void draw(Graphics2D graphics)
     {
-        updateContactPoints();
-
         Color oldColor = graphics.getColor();
         Stroke oldStroke = graphics.getStroke();
 
         graphics.setColor(getBorderColor());
-        graphics.setStroke(getLineStyle());
+        // Dashes are left out when edges are simplified
+        graphics.setStroke(LevelOfDetail.simplifiesEdges(graphics) ? LineStyle.SOLID : getLineStyle());
         graphics.draw(getPath());
         graphics.setStroke(oldStroke);
         graphics.setColor(oldColor);
@@ -98,14 +99,30 @@ public abstract class LineEdge extends ShapeEdge
         return getPath();
     }
 
+    /**
+     * Returns the path through the contact points. The path is built again only when
+     * contact points are recomputed, so it is shared and must not be modified.
+     *
+     * @return path along the edge
+     */
     protected GeneralPath getPath()
     {
-        GeneralPath path = new GeneralPath();
-        path.moveTo(contactPoints[0].getX(), contactPoints[0].getY());
-
-        for (int i = 1; i < contactPoints.length; ++i)
+        if (null == contactPoints)
+        {
+            // Not routed by a graph yet
+            updateContactPoints();
+        }
+        if (null == path || pathContactPoints != contactPoints)
         {
-            path.lineTo(contactPoints[i].getX(), contactPoints[i].getY());
+            GeneralPath newPath = new GeneralPath();
+            newPath.moveTo(contactPoints[0].getX(), contactPoints[0].getY());
+
+            for (int i = 1; i < contactPoints.length; ++i)
+            {
+                newPath.lineTo(contactPoints[i].getX(), contactPoints[i].getY());
+            }
+            path = newPath;
+            pathContactPoints = contactPoints;
         }
         return path;
     }
@@ -251,6 +268,8 @@ public abstract class LineEdge extends ShapeEdge
 
     private transient LineStyleChoiceList lineStyleChoiceList;
     private transient BentStyleChoiceList bentStyleChoiceList;
+    private transient GeneralPath path;
+    private transient Point2D[] pathContactPoints;
 
     private int selectedBentStyle;
     private int selectedLineStyle;
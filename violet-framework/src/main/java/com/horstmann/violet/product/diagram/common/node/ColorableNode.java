@@ -123,6 +123,7 @@ public abstract class ColorableNode extends AbstractNode implements IColorable
         {
             background.setBackgroundColor(bgColor);
         }
+        invalidateSprite();
     }
 
     @Override
@@ -143,6 +144,7 @@ public abstract class ColorableNode extends AbstractNode implements IColorable
         {
             border.setBorderColor(borderColor);
         }
+        invalidateSprite();
     }
 
     @Override
@@ -159,6 +161,7 @@ public abstract class ColorableNode extends AbstractNode implements IColorable
     public void setTextColor(Color textColor)
     {
         this.textColor = textColor;
+        invalidateSprite();
     }
 
     @Override
@@ -54,14 +54,14 @@ public class NoteNode extends ColorableNode
     {
         super();
         text = new MultiLineText();
-        createContentStructure();
+        buildContentStructure();
     }
 
     public NoteNode(NoteNode node) throws CloneNotSupportedException
     {
         super(node);
         text = node.text.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
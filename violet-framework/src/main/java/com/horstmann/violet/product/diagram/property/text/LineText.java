@@ -1,9 +1,10 @@
 package com.horstmann.violet.product.diagram.property.text;
 
+import com.horstmann.violet.framework.graphics.LevelOfDetail;
 import com.horstmann.violet.product.diagram.property.text.decorator.OneLineText;
 
-import javax.swing.*;
-import javax.swing.border.EmptyBorder;
+import javax.swing.SwingConstants;
+import javax.swing.UIManager;
 import java.awt.*;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
@@ -47,11 +48,12 @@ public abstract class LineText implements Serializable, Cloneable, EditableText
 
     protected LineText(LineText lineText) throws CloneNotSupportedException
     {
-        getLabel().setHorizontalAlignment(lineText.getLabel().getHorizontalAlignment());
-        getLabel().setVerticalAlignment(lineText.getLabel().getVerticalAlignment());
-        getLabel().setForeground(lineText.getLabel().getForeground());
-        getLabel().setBorder(lineText.getLabel().getBorder());
-        getLabel().setText(lineText.getLabel().getText());
+        alignment = lineText.alignment;
+        textColor = lineText.textColor;
+        padding = lineText.padding;
+        labelText = lineText.labelText;
+        renderer = lineText.renderer;
+        refresh();
         converter = lineText.converter;
     }
 
@@ -111,7 +113,12 @@ public abstract class LineText implements Serializable, Cloneable, EditableText
      */
     public final Color getTextColor()
     {
-        return getLabel().getForeground();
+        if(null == textColor)
+        {
+            Color defaultColor = UIManager.getColor("Label.foreground");
+            return null == defaultColor ? Color.BLACK : defaultColor;
+        }
+        return textColor;
     }
 
     /**
@@ -120,7 +127,7 @@ public abstract class LineText implements Serializable, Cloneable, EditableText
      */
     public final void setTextColor(Color color)
     {
-        getLabel().setForeground(color);
+        textColor = color;
     }
 
     /**
@@ -151,7 +158,7 @@ public abstract class LineText implements Serializable, Cloneable, EditableText
      */
     public final void setPadding(int top, int left, int bottom, int right)
     {
-        getLabel().setBorder(new EmptyBorder(top, left, bottom, right));
+        padding = new Insets(top, left, bottom, right);
         refresh();
     }
 
@@ -164,7 +171,11 @@ public abstract class LineText implements Serializable, Cloneable, EditableText
      */
     public final void setAlignment(int flag)
     {
-        getLabel().setHorizontalAlignment(flag);
+        if(LEFT != flag && CENTER != flag && RIGHT != flag && SwingConstants.LEADING != flag && SwingConstants.TRAILING != flag)
+        {
+            throw new IllegalArgumentException("alignment must be LEFT, CENTER or RIGHT");
+        }
+        alignment = flag;
         refresh();
     }
 
@@ -173,7 +184,11 @@ public abstract class LineText implements Serializable, Cloneable, EditableText
      */
     public final int getAlignment()
     {
-        return getLabel().getHorizontalAlignment();
+        if(null == alignment)
+        {
+            return SwingConstants.LEADING;
+        }
+        return alignment;
     }
 
     /**
@@ -183,7 +198,7 @@ public abstract class LineText implements Serializable, Cloneable, EditableText
      */
     public final void draw(Graphics2D graphics, Rectangle2D rect)
     {
-        getLabel().setBounds(0, 0, (int) rect.getWidth(), (int) rect.getHeight());
+        drawingSize = new Dimension((int) rect.getWidth(), (int) rect.getHeight());
         draw(graphics, new Point2D.Double(rect.getX(), rect.getY()));
     }
 
@@ -194,8 +209,38 @@ public abstract class LineText implements Serializable, Cloneable, EditableText
      */
     public final void draw(Graphics2D graphics, Point2D point)
     {
+        if(null == labelText || null == drawingSize)
+        {
+            return;
+        }
+        Insets insets = getPadding();
+        Font font = getFont();
+        Dimension size = TextSizeCache.getInstance().getSize(labelText, font);
+        // Text is placed in the area left by the padding, as a label would place it
+        int availableWidth = drawingSize.width - insets.left - insets.right;
+        int availableHeight = drawingSize.height - insets.top - insets.bottom;
+        int width = Math.min(availableWidth, size.width);
+        int x = insets.left;
+        int alignment = getAlignment();
+        if(CENTER == alignment)
+        {
+            x += availableWidth / 2 - width / 2;
+        }
+        else if(RIGHT == alignment || SwingConstants.TRAILING == alignment)
+        {
+            x += availableWidth - width;
+        }
+        int y = insets.top + availableHeight / 2 - size.height / 2;
+
         graphics.translate(point.getX(), point.getY());
-        getLabel().paint(graphics);
+        if(LevelOfDetail.simplifiesNodes(graphics))
+        {
+            getRenderer().drawGreeked(graphics, x, y, width, font, getTextColor());
+        }
+        else
+        {
+            getRenderer().draw(graphics, x, y, width, font, getTextColor());
+        }
         graphics.translate(-point.getX(), -point.getY());
     }
 
@@ -205,7 +250,7 @@ public abstract class LineText implements Serializable, Cloneable, EditableText
      */
     public final void draw(Graphics2D graphics)
     {
-        getLabel().setBounds(0, 0, (int) getBounds().getWidth(), (int) getBounds().getHeight());
+        drawingSize = new Dimension((int) getBounds().getWidth(), (int) getBounds().getHeight());
         draw(graphics, new Point2D.Double(0, 0));
     }
 
@@ -239,15 +284,8 @@ public abstract class LineText implements Serializable, Cloneable, EditableText
      */
     protected final void setLabelText(String text)
     {
-        if(text.isEmpty())
-        {
-            getLabel().setText("");
-        }
-        else
-        {
-            getLabel().setText("<html>"+text+"<html>");
-        }
-
+        labelText = text.isEmpty() ? null : text;
+        renderer = null;
         refresh();
     }
 
@@ -256,28 +294,54 @@ public abstract class LineText implements Serializable, Cloneable, EditableText
      */
     private void refresh()
     {
-        if(getLabel().getText().isEmpty())
+        if(null == labelText)
         {
             this.bounds = new Rectangle2D.Double(0, 0, 0, 0);
         }
         else
         {
-            Dimension dimension = getLabel().getPreferredSize();
-            this.bounds = new Rectangle2D.Double(0, 0, dimension.getWidth(), dimension.getHeight());
+            Dimension dimension = TextSizeCache.getInstance().getSize(labelText, getFont());
+            Insets insets = getPadding();
+            this.bounds = new Rectangle2D.Double(0, 0, dimension.getWidth() + insets.left + insets.right,
+                    dimension.getHeight() + insets.top + insets.bottom);
+        }
+    }
+
+    /**
+     * @return renderer drawing the text, created on first drawing
+     */
+    private TextRenderer getRenderer()
+    {
+        if(null == renderer)
+        {
+            renderer = new TextRenderer(labelText);
+        }
+        return renderer;
+    }
+
+    /**
+     * @return padding around text
+     */
+    private Insets getPadding()
+    {
+        if(null == padding)
+        {
+            padding = new Insets(0, 0, 0, 0);
         }
+        return padding;
     }
 
     /**
-     * @return label
-     * @see JLabel
+     * @return font text is written with, unless decorators change it
      */
-    private JLabel getLabel()
+    private Font getFont()
     {
-        if (null == label || null == label.getText())
+        Font font = UIManager.getFont("Label.font");
+        if(null == font)
         {
-            label = new JLabel("");
+            font = DEFAULT_FONT;
         }
-        return label;
+        return font;
     }
 
     /**
@@ -305,8 +369,15 @@ public abstract class LineText implements Serializable, Cloneable, EditableText
     public static final int CENTER = SwingConstants.CENTER;
     public static final int RIGHT = SwingConstants.RIGHT;
 
+    private static final Font DEFAULT_FONT = new Font(Font.DIALOG, Font.PLAIN, 12);
+
     protected transient Converter converter;
-    private transient JLabel label;
+    private transient String labelText;
+    private transient TextRenderer renderer;
+    private transient Color textColor;
+    private transient Insets padding;
+    private transient Integer alignment;
+    private transient Dimension drawingSize;
     private transient Rectangle2D bounds;
 
     private transient List<ChangeListener> changeListeners;
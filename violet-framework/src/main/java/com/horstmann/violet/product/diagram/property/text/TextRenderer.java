@@ -0,0 +1,515 @@
+package com.horstmann.violet.product.diagram.property.text;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.LineMetrics;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Measures and draws the display form of a text, that is the markup produced by decorators : b, i, u, font with a
+ * relative size, center and br tags, and character entities. Lines are laid out like Swing lays out labels showing
+ * the same markup, without creating any component.
+ */
+public class TextRenderer
+{
+    /**
+     * @param markup display text
+     */
+    public TextRenderer(String markup)
+    {
+        this.lines = new Parser(markup).parse();
+    }
+
+    /**
+     * @param font base font
+     * @return size of the text written with the given font
+     */
+    public Dimension getSize(Font font)
+    {
+        Layout layout = getLayout(font);
+        return new Dimension(layout.width, layout.height);
+    }
+
+    /**
+     * Draws the text
+     *
+     * @param graphics graphics context
+     * @param x left of the text
+     * @param y top of the text
+     * @param width width lines are centered in
+     * @param font base font
+     * @param color text color
+     */
+    public void draw(Graphics2D graphics, int x, int y, int width, Font font, Color color)
+    {
+        Layout layout = getLayout(font);
+        FontRenderContext frc = graphics.getFontRenderContext();
+        if (!frc.equals(this.drawingContext) || this.drawingLayout != layout)
+        {
+            // Glyphs are positioned for the scale they are drawn at
+            this.drawingContext = frc;
+            this.drawingLayout = layout;
+            this.glyphs = new GlyphVector[layout.fonts.length];
+        }
+
+        Color oldColor = graphics.getColor();
+        graphics.setColor(color);
+        int lineTop = y;
+        int runIndex = 0;
+        for (int i = 0; i < this.lines.size(); ++i)
+        {
+            Line line = this.lines.get(i);
+            int runX = x;
+            if (line.centered)
+            {
+                runX += (width - layout.lineWidths[i]) / 2;
+            }
+            int baseline = lineTop + layout.lineAscents[i];
+            for (Run run : line.runs)
+            {
+                if (run.lineBreak)
+                {
+                    ++runIndex;
+                    continue;
+                }
+                GlyphVector runGlyphs = this.glyphs[runIndex];
+                if (null == runGlyphs)
+                {
+                    runGlyphs = layout.fonts[runIndex].createGlyphVector(frc, run.text);
+                    this.glyphs[runIndex] = runGlyphs;
+                }
+                graphics.drawGlyphVector(runGlyphs, runX, baseline);
+                if (run.underline)
+                {
+                    graphics.drawLine(runX, baseline + 1, runX + layout.runWidths[runIndex], baseline + 1);
+                }
+                runX += layout.runWidths[runIndex];
+                ++runIndex;
+            }
+            lineTop += layout.lineHeights[i];
+        }
+        graphics.setColor(oldColor);
+    }
+
+    /**
+     * Draws each line as a bar, for texts too small to be read
+     *
+     * @param graphics graphics context
+     * @param x left of the text
+     * @param y top of the text
+     * @param width width lines are centered in
+     * @param font base font
+     * @param color text color
+     */
+    public void drawGreeked(Graphics2D graphics, int x, int y, int width, Font font, Color color)
+    {
+        Layout layout = getLayout(font);
+        Color oldColor = graphics.getColor();
+        graphics.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), GREEKED_ALPHA));
+        int lineTop = y;
+        for (int i = 0; i < this.lines.size(); ++i)
+        {
+            int lineWidth = Math.min(width, layout.lineWidths[i]);
+            int lineX = x;
+            if (this.lines.get(i).centered)
+            {
+                lineX += (width - lineWidth) / 2;
+            }
+            if (0 < lineWidth)
+            {
+                graphics.fillRect(lineX, lineTop + layout.lineHeights[i] / 4, lineWidth, layout.lineHeights[i] / 2);
+            }
+            lineTop += layout.lineHeights[i];
+        }
+        graphics.setColor(oldColor);
+    }
+
+    /**
+     * @param font base font
+     * @return line metrics computed with the given font
+     */
+    private Layout getLayout(Font font)
+    {
+        if (null == this.layout || !this.layout.font.equals(font))
+        {
+            this.layout = new Layout(this.lines, font);
+        }
+        return this.layout;
+    }
+
+    /**
+     * Font of a run, derived from the base font
+     *
+     * @param font base font
+     * @param run styled text
+     * @return font to write the run with
+     */
+    private static Font getFont(Font font, Run run)
+    {
+        float size = font.getSize2D();
+        if (run.hasRelativeSize)
+        {
+            int index = Math.max(1, Math.min(FONT_SIZES.length, BASE_FONT_SIZE + run.relativeSize));
+            size = FONT_SIZES[index - 1];
+        }
+        return font.deriveFont(font.getStyle() | run.style, size);
+    }
+
+    /**
+     * Positions of lines and runs for one base font
+     */
+    private static class Layout
+    {
+        Layout(List<Line> lines, Font font)
+        {
+            this.font = font;
+            int runCount = 0;
+            for (Line line : lines)
+            {
+                runCount += line.runs.size();
+            }
+            this.fonts = new Font[runCount];
+            this.runWidths = new int[runCount];
+            this.lineWidths = new int[lines.size()];
+            this.lineAscents = new int[lines.size()];
+            this.lineHeights = new int[lines.size()];
+
+            int runIndex = 0;
+            for (int i = 0; i < lines.size(); ++i)
+            {
+                int descent = 0;
+                for (Run run : lines.get(i).runs)
+                {
+                    Font runFont = getFont(font, run);
+                    GlyphVector runGlyphs = runFont.createGlyphVector(MEASURING_CONTEXT, run.text);
+                    LineMetrics metrics = runFont.getLineMetrics(run.text, MEASURING_CONTEXT);
+                    // Rounded like font metrics are
+                    int runAscent = (int) (ROUNDING_UP + metrics.getAscent());
+                    int runDescent = (int) (ROUNDING_UP + metrics.getDescent() + metrics.getLeading());
+                    this.fonts[runIndex] = runFont;
+                    this.runWidths[runIndex] = run.lineBreak ? 0 : (int) runGlyphs.getLogicalBounds().getWidth();
+                    this.lineWidths[i] += this.runWidths[runIndex];
+                    this.lineAscents[i] = Math.max(this.lineAscents[i], runAscent);
+                    descent = Math.max(descent, runDescent);
+                    ++runIndex;
+                }
+                this.lineHeights[i] = this.lineAscents[i] + descent;
+                this.width = Math.max(this.width, this.lineWidths[i]);
+                this.height += this.lineHeights[i];
+            }
+        }
+
+        final Font font;
+        final Font[] fonts;
+        final int[] runWidths;
+        final int[] lineWidths;
+        final int[] lineAscents;
+        final int[] lineHeights;
+        int width;
+        int height;
+    }
+
+    /**
+     * Row of runs
+     */
+    private static class Line
+    {
+        Line(boolean centered)
+        {
+            this.centered = centered;
+        }
+
+        final boolean centered;
+        final List<Run> runs = new ArrayList<Run>();
+    }
+
+    /**
+     * Text written with a single style
+     */
+    private static class Run
+    {
+        Run(String text, int style, boolean underline, boolean hasRelativeSize, int relativeSize, boolean lineBreak)
+        {
+            this.text = text;
+            this.style = style;
+            this.underline = underline;
+            this.hasRelativeSize = hasRelativeSize;
+            this.relativeSize = relativeSize;
+            this.lineBreak = lineBreak;
+        }
+
+        /**
+         * @return a whitespace taking room, written with the style of this line break
+         */
+        Run toSpace()
+        {
+            return new Run(text, style, underline, hasRelativeSize, relativeSize, false);
+        }
+
+        final String text;
+        final int style;
+        final boolean underline;
+        final boolean hasRelativeSize;
+        final int relativeSize;
+        /** Line breaks count in line heights only */
+        final boolean lineBreak;
+    }
+
+    /**
+     * Splits markup into lines of runs. Whitespaces collapse and are dropped at both ends of lines. A line break
+     * only takes room when nothing visible follows it.
+     */
+    private static class Parser
+    {
+        Parser(String markup)
+        {
+            this.markup = markup;
+        }
+
+        List<Line> parse()
+        {
+            this.line = new Line(false);
+            int i = 0;
+            while (i < this.markup.length())
+            {
+                char c = this.markup.charAt(i);
+                int end;
+                if ('<' == c && -1 != (end = this.markup.indexOf('>', i)))
+                {
+                    parseTag(this.markup.substring(i + 1, end).trim().toLowerCase());
+                    i = end + 1;
+                }
+                else if ('&' == c && -1 != (end = this.markup.indexOf(';', i)) && end - i <= MAX_ENTITY_LENGTH
+                        && 0 != parseEntity(this.markup.substring(i + 1, end)))
+                {
+                    append(parseEntity(this.markup.substring(i + 1, end)));
+                    i = end + 1;
+                }
+                else
+                {
+                    append(c);
+                    ++i;
+                }
+            }
+            endLine();
+            if (null != this.lastBreakLine)
+            {
+                List<Run> runs = this.lastBreakLine.runs;
+                runs.set(runs.size() - 1, runs.get(runs.size() - 1).toSpace());
+            }
+            return this.lines;
+        }
+
+        private void parseTag(String tag)
+        {
+            boolean closing = tag.startsWith("/");
+            String name = tag.substring(closing ? 1 : 0).split("\\s", 2)[0];
+            if ("b".equals(name))
+            {
+                endRun();
+                this.bold += closing ? -1 : 1;
+            }
+            else if ("i".equals(name))
+            {
+                endRun();
+                this.italic += closing ? -1 : 1;
+            }
+            else if ("u".equals(name))
+            {
+                endRun();
+                this.underline += closing ? -1 : 1;
+            }
+            else if ("font".equals(name))
+            {
+                endRun();
+                if (closing)
+                {
+                    if (!this.sizes.isEmpty())
+                    {
+                        this.sizes.removeLast();
+                    }
+                }
+                else
+                {
+                    this.sizes.addLast(parseRelativeSize(tag));
+                }
+            }
+            else if ("center".equals(name))
+            {
+                if (!this.line.runs.isEmpty() || 0 < this.text.length())
+                {
+                    endLine();
+                }
+                this.centered += closing ? -1 : 1;
+                this.line = new Line(0 < this.centered);
+            }
+            else if ("br".equals(name))
+            {
+                endRun();
+                trimLine();
+                this.line.runs.add(createRun(" ", true));
+                this.lastBreakLine = this.line;
+                endLine();
+            }
+        }
+
+        private Integer parseRelativeSize(String tag)
+        {
+            int index = tag.indexOf("size=");
+            if (-1 == index)
+            {
+                return null;
+            }
+            String value = tag.substring(index + "size=".length()).replace("\"", "").split("\\s", 2)[0];
+            try
+            {
+                return Integer.valueOf(value.startsWith("+") ? value.substring(1) : value);
+            }
+            catch (NumberFormatException e)
+            {
+                return null;
+            }
+        }
+
+        private char parseEntity(String entity)
+        {
+            if ("amp".equals(entity)) return '&';
+            if ("lt".equals(entity)) return '<';
+            if ("gt".equals(entity)) return '>';
+            if ("quot".equals(entity)) return '"';
+            if ("apos".equals(entity)) return '\'';
+            if ("nbsp".equals(entity)) return '\u00a0';
+            if ("laquo".equals(entity)) return '\u00ab';
+            if ("raquo".equals(entity)) return '\u00bb';
+            try
+            {
+                if (entity.startsWith("#x") || entity.startsWith("#X"))
+                {
+                    return (char) Integer.parseInt(entity.substring(2), 16);
+                }
+                if (entity.startsWith("#"))
+                {
+                    return (char) Integer.parseInt(entity.substring(1));
+                }
+            }
+            catch (NumberFormatException e)
+            {
+                // Not an entity, written as is
+            }
+            return 0;
+        }
+
+        private void append(char c)
+        {
+            if (Character.isWhitespace(c))
+            {
+                boolean lineStart = this.line.runs.isEmpty() && 0 == this.text.length();
+                if (!lineStart && !this.lastIsSpace)
+                {
+                    this.text.append(' ');
+                    this.lastIsSpace = true;
+                }
+                return;
+            }
+            this.text.append(c);
+            this.lastIsSpace = false;
+            this.lastBreakLine = null;
+        }
+
+        private void endRun()
+        {
+            if (0 == this.text.length())
+            {
+                return;
+            }
+            this.line.runs.add(createRun(this.text.toString(), false));
+            this.text.setLength(0);
+        }
+
+        private Run createRun(String text, boolean lineBreak)
+        {
+            int style = (0 < this.bold ? Font.BOLD : 0) | (0 < this.italic ? Font.ITALIC : 0);
+            Integer size = null;
+            for (Integer aSize : this.sizes)
+            {
+                if (null != aSize)
+                {
+                    size = aSize;
+                }
+            }
+            return new Run(text, style, 0 < this.underline, null != size, null == size ? 0 : size.intValue(),
+                    lineBreak);
+        }
+
+        /**
+         * Drops whitespaces ending the current line
+         */
+        private void trimLine()
+        {
+            List<Run> runs = this.line.runs;
+            while (!runs.isEmpty() && !runs.get(runs.size() - 1).lineBreak)
+            {
+                Run last = runs.remove(runs.size() - 1);
+                int length = last.text.length();
+                while (0 < length && ' ' == last.text.charAt(length - 1))
+                {
+                    --length;
+                }
+                if (0 < length)
+                {
+                    runs.add(new Run(last.text.substring(0, length), last.style, last.underline, last.hasRelativeSize,
+                            last.relativeSize, false));
+                    break;
+                }
+            }
+        }
+
+        private void endLine()
+        {
+            endRun();
+            trimLine();
+            this.lines.add(this.line);
+            this.line = new Line(0 < this.centered);
+            this.lastIsSpace = false;
+        }
+
+        private final String markup;
+        private final List<Line> lines = new ArrayList<Line>();
+        private final StringBuilder text = new StringBuilder();
+        private final LinkedList<Integer> sizes = new LinkedList<Integer>();
+        private Line line;
+        private Line lastBreakLine;
+        private boolean lastIsSpace;
+        private int bold;
+        private int italic;
+        private int underline;
+        private int centered;
+    }
+
+    private final List<Line> lines;
+    private Layout layout;
+    private FontRenderContext drawingContext;
+    private Layout drawingLayout;
+    private GlyphVector[] glyphs;
+
+    /** Point sizes of the seven html font sizes */
+    private static final float[] FONT_SIZES = {8, 10, 12, 14, 18, 24, 36};
+
+    /** Html font size relative sizes are added to */
+    private static final int BASE_FONT_SIZE = 4;
+
+    private static final float ROUNDING_UP = 0.95f;
+
+    /** Opacity of the bars standing for lines */
+    private static final int GREEKED_ALPHA = 96;
+
+    private static final int MAX_ENTITY_LENGTH = 8;
+
+    private static final FontRenderContext MEASURING_CONTEXT = new FontRenderContext(null, false, false);
+}
@@ -0,0 +1,147 @@
+package com.horstmann.violet.product.diagram.property.text;
+
+import java.awt.Dimension;
+import java.awt.Font;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the size of display texts, so that texts shared by many nodes and edges, or set again while a diagram is
+ * loaded, are only laid out once. The cache is shared by every text, bounded, and safe to use from any thread.
+ */
+public class TextSizeCache
+{
+    /**
+     * Constructs a cache
+     *
+     * @param maxEntries number of sizes kept, the least recently used ones are forgotten first
+     */
+    public TextSizeCache(int maxEntries)
+    {
+        if (0 >= maxEntries)
+        {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return the cache shared by all texts
+     */
+    public static TextSizeCache getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * @param markup display text
+     * @param font base font
+     * @return size of the text written with the given font
+     */
+    public Dimension getSize(String markup, Font font)
+    {
+        Key key = new Key(markup, font);
+        synchronized (this)
+        {
+            Dimension size = this.sizes.get(key);
+            if (null != size)
+            {
+                ++this.hits;
+                return new Dimension(size);
+            }
+            ++this.misses;
+        }
+        // Texts are laid out outside of the lock, a text measured twice at the same time gets the same size anyway
+        Dimension size = new TextRenderer(markup).getSize(font);
+        synchronized (this)
+        {
+            this.sizes.put(key, new Dimension(size));
+        }
+        return size;
+    }
+
+    /**
+     * Forgets every size
+     */
+    public synchronized void clear()
+    {
+        this.sizes.clear();
+    }
+
+    /**
+     * @return number of sizes kept
+     */
+    public synchronized int size()
+    {
+        return this.sizes.size();
+    }
+
+    /**
+     * @return number of sizes found in the cache
+     */
+    public synchronized long getHits()
+    {
+        return this.hits;
+    }
+
+    /**
+     * @return number of sizes that had to be measured
+     */
+    public synchronized long getMisses()
+    {
+        return this.misses;
+    }
+
+    private static class Key
+    {
+        Key(String markup, Font font)
+        {
+            this.markup = markup;
+            this.font = font;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof Key))
+            {
+                return false;
+            }
+            Key key = (Key) o;
+            return this.markup.equals(key.markup) && this.font.equals(key.font);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * this.markup.hashCode() + this.font.hashCode();
+        }
+
+        private final String markup;
+        private final Font font;
+    }
+
+    /** Sizes, least recently used first */
+    private final Map<Key, Dimension> sizes = new LinkedHashMap<Key, Dimension>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Dimension> eldest)
+        {
+            return size() > maxEntries;
+        }
+    };
+
+    private final int maxEntries;
+
+    private long hits;
+
+    private long misses;
+
+    private static final int DEFAULT_MAX_ENTRIES = 16384;
+
+    private static final TextSizeCache INSTANCE = new TextSizeCache(DEFAULT_MAX_ENTRIES);
+}
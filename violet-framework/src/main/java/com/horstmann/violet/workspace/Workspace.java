@@ -126,16 +126,28 @@ public class Workspace implements IWorkspace
        if (filename != null) {
            return filename;
        }
+       IDiagramPlugin diagramPlugin = getDiagramPlugin();
+       if (diagramPlugin != null)
+       {
+           return diagramPlugin.getName();
+       }
+       return resourceBundle.getString("workspace.unknown");
+    }
+
+    /**
+     * @return the plugin providing this kind of graph, or null if no plugin provides it
+     */
+    private IDiagramPlugin getDiagramPlugin() {
        List<IDiagramPlugin> diagramPlugins = this.pluginRegistry.getDiagramPlugins();
        Class<? extends IGraph> searchedClass = this.graphFile.getGraph().getClass();
        for (IDiagramPlugin aDiagramPlugin : diagramPlugins)
        {
            if (aDiagramPlugin.getGraphClass().equals(searchedClass))
            {
-               return aDiagramPlugin.getName();
+               return aDiagramPlugin;
            }
        }
-       return resourceBundle.getString("workspace.unknown");
+       return null;
     }
     
     
@@ -149,7 +161,13 @@ public class Workspace implements IWorkspace
     {
         if (this.graphEditor == null)
         {
-            this.graphEditor = new EditorPart(this.graphFile.getGraph());
+            EditorPart editorPart = new EditorPart(this.graphFile.getGraph());
+            IDiagramPlugin diagramPlugin = getDiagramPlugin();
+            if (diagramPlugin != null)
+            {
+                editorPart.setLevelOfDetail(diagramPlugin.getLevelOfDetail());
+            }
+            this.graphEditor = editorPart;
             IEditorPartBehaviorManager behaviorManager = this.graphEditor.getBehaviorManager();
             behaviorManager.addBehavior(new SelectByLassoBehavior(this.graphEditor, this.getSideBar().getGraphToolsBar()));
             behaviorManager.addBehavior(new SelectByClickBehavior(this.graphEditor, this.getSideBar().getGraphToolsBar()));
@@ -2,7 +2,6 @@ package com.horstmann.violet.workspace;
 
 import java.awt.BorderLayout;
 import java.awt.Component;
-import java.awt.Graphics;
 import java.awt.LayoutManager;
 import java.awt.Rectangle;
 import java.awt.event.AdjustmentEvent;
@@ -59,15 +58,7 @@ public class WorkspacePanel extends JPanel
             final IEditorPart editorPart = this.workspace.getEditorPart();
             final Component panel = editorPart.getSwingComponent();
             
-            this.scrollableEditorPart = new JScrollPane() {
-                @Override
-                public void paint(Graphics g)
-                {
-                    editorPart.getSwingComponent().invalidate();
-                    super.paint(g);
-                }
-                
-            };
+            this.scrollableEditorPart = new JScrollPane();
             this.scrollableEditorPart.getViewport().setView(panel);
             this.scrollableEditorPart.getVerticalScrollBar().addAdjustmentListener(new AdjustmentListener()
             {
@@ -75,7 +66,6 @@ public class WorkspacePanel extends JPanel
                 @Override
                 public void adjustmentValueChanged(AdjustmentEvent e)
                 {
-                    editorPart.getSwingComponent().invalidate();
                     editorPart.getSwingComponent().repaint();
                 }
             });
@@ -85,7 +75,6 @@ public class WorkspacePanel extends JPanel
                 @Override
                 public void adjustmentValueChanged(AdjustmentEvent e)
                 {
-                    editorPart.getSwingComponent().invalidate();
                     editorPart.getSwingComponent().repaint();
                 }
             });
@@ -24,12 +24,14 @@ package com.horstmann.violet.workspace.editorpart;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionAdapter;
 import java.awt.event.MouseWheelEvent;
 import java.awt.event.MouseWheelListener;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
 import java.awt.geom.Rectangle2D.Double;
 import java.util.List;
@@ -37,9 +39,13 @@ import java.util.List;
 import javax.swing.JComponent;
 import javax.swing.JPanel;
 
+import com.horstmann.violet.framework.graphics.LevelOfDetail;
+import com.horstmann.violet.framework.graphics.PaintMetrics;
+import com.horstmann.violet.product.diagram.abstracts.AbstractGraph;
 import com.horstmann.violet.product.diagram.abstracts.IGraph;
 import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
 import com.horstmann.violet.product.diagram.abstracts.node.INode;
+import com.horstmann.violet.product.diagram.abstracts.node.NodeSpriteCache;
 import com.horstmann.violet.workspace.editorpart.behavior.IEditorPartBehavior;
 
 /**
@@ -59,6 +65,11 @@ public class EditorPart extends JPanel implements IEditorPart
         this.zoom = 1;
         this.grid = new PlainGrid(this);
         this.graph.setGridSticker(grid.getGridSticker());
+        this.repaintScheduler = new EditorPartRepaintScheduler(this);
+        if (aGraph instanceof AbstractGraph)
+        {
+            this.tileCache = new EditorPartTileCache(this, (AbstractGraph) aGraph, this.repaintScheduler);
+        }
         addMouseListener(new MouseAdapter()
         {
 
@@ -175,12 +186,13 @@ public class EditorPart extends JPanel implements IEditorPart
     public void changeZoom(int steps)
     {
         final double FACTOR = Math.sqrt(Math.sqrt(2));
+        double oldZoom = zoom;
         for (int i = 1; i <= steps; i++)
             zoom *= FACTOR;
         for (int i = 1; i <= -steps; i++)
             zoom /= FACTOR;
-        invalidate();
-        repaint();
+        this.repaintScheduler.repaint(null);
+        firePropertyChange(ZOOM_PROPERTY, oldZoom, zoom);
     }
 
     @Override
@@ -210,8 +222,7 @@ public class EditorPart extends JPanel implements IEditorPart
         Rectangle2D bounds = g.getClipBounds();
         bounds.add(getBounds());
         g.setBounds(new Double(0, 0, GROW_SCALE_FACTOR * bounds.getWidth(), GROW_SCALE_FACTOR * bounds.getHeight()));
-        invalidate();
-        repaint();
+        this.repaintScheduler.repaint(null);
     }
 
     /*
@@ -223,48 +234,216 @@ public class EditorPart extends JPanel implements IEditorPart
     {
         IGraph g = getGraph();
         g.setBounds(null);
-        invalidate();
-        repaint();
+        this.repaintScheduler.repaint(null);
     }
 
     public JComponent getSwingComponent()
     {
         return this;
     }
-    
-    
+
     @Override
-    public void paintImmediately(int x, int y, int w, int h)
+    public void invalidateDrawingArea(Rectangle2D areaOnGraph)
     {
-        getSwingComponent().invalidate();
-        super.paintImmediately(x, y, w, h);
+        if (null != this.tileCache)
+        {
+            // Dropped tiles are repainted
+            this.tileCache.invalidate(areaOnGraph);
+        }
+        else
+        {
+            this.repaintScheduler.repaint(areaOnGraph);
+        }
+    }
+
+    @Override
+    public void repaintDrawingArea(Rectangle2D areaOnGraph)
+    {
+        this.repaintScheduler.repaint(areaOnGraph);
+    }
+
+    @Override
+    public void beginDragging(List<INode> nodes)
+    {
+        if (null != this.tileCache)
+        {
+            this.tileCache.beginDragging(nodes);
+        }
+    }
+
+    @Override
+    public void endDragging()
+    {
+        if (null != this.tileCache)
+        {
+            this.tileCache.endDragging();
+        }
+    }
+
+    /**
+     * @return true if only the elements in the visible area are painted
+     */
+    public boolean isViewportCulling()
+    {
+        return this.viewportCulling;
+    }
+
+    /**
+     * Enables or disables painting of visible elements only. Disabling it paints the whole graph on each repaint.
+     * 
+     * @param viewportCulling
+     */
+    public void setViewportCulling(boolean viewportCulling)
+    {
+        this.viewportCulling = viewportCulling;
+        invalidateDrawingArea(null);
+    }
+
+    /**
+     * @return how much detail the graph is painted with depending on the zoom factor
+     */
+    public LevelOfDetail getLevelOfDetail()
+    {
+        return this.levelOfDetail;
+    }
+
+    /**
+     * Sets how much detail the graph is painted with depending on the zoom factor
+     * 
+     * @param levelOfDetail
+     */
+    public void setLevelOfDetail(LevelOfDetail levelOfDetail)
+    {
+        this.levelOfDetail = levelOfDetail;
+        invalidateDrawingArea(null);
     }
     
     
     @Override
-    protected void paintComponent(Graphics g)
+    public PaintMetrics getPaintMetrics()
+    {
+        return this.paintMetrics;
+    }
+
+    @Override
+    public boolean isPerformanceHudVisible()
     {
-        boolean valid = getSwingComponent().isValid();
-        if (valid)
+        return this.performanceHudVisible;
+    }
+
+    @Override
+    public void setPerformanceHudVisible(boolean visible)
+    {
+        this.performanceHudVisible = visible;
+        this.paintMetrics.setEnabled(visible);
+        if (null != this.hudBounds)
         {
-            return;
+            repaint(this.hudBounds);
+            this.hudBounds = null;
         }
-        getSwingComponent().revalidate(); // to inform parent scrollpane container
+        if (visible)
+        {
+            this.repaintScheduler.repaint(null);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g)
+    {
         Graphics2D g2 = (Graphics2D) g;
-        g2.scale(zoom, zoom);
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
-        if (grid.isVisible()) grid.paint(g2);
+        AffineTransform componentTransform = g2.getTransform();
+        Rectangle clip = g2.getClipBounds();
+        if (null == clip)
+        {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        // Repainting the display alone is not worth measuring
+        boolean hudOnly = this.performanceHudVisible && null != this.hudBounds && this.hudBounds.contains(clip);
+        if (!hudOnly)
+        {
+            this.paintMetrics.beginFrame();
+        }
+        PaintMetrics metrics = this.paintMetrics.isRecording() ? this.paintMetrics : null;
+        if (null != metrics)
+        {
+            g2.setRenderingHint(PaintMetrics.KEY_PAINT_METRICS, metrics);
+        }
+
+        // Informs parent scrollpane container when the graph grew or shrank
+        long startTime = null != metrics ? System.nanoTime() : 0;
+        this.repaintScheduler.validateExtent();
+        if (null != metrics) metrics.addTime(PaintMetrics.REVALIDATE, startTime);
+        if (null != this.tileCache && this.tileCache.paint(g2, clip, this.viewportCulling, this.levelOfDetail))
+        {
+            g2.scale(zoom, zoom);
+        }
+        else
+        {
+            g2.scale(zoom, zoom);
+            if (grid.isVisible())
+            {
+                startTime = null != metrics ? System.nanoTime() : 0;
+                grid.paint(g2);
+                if (null != metrics) metrics.addTime(PaintMetrics.GRID, startTime);
+            }
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(NodeSpriteCache.KEY_NODE_SPRITES, Boolean.TRUE);
+            g2.setRenderingHint(LevelOfDetail.KEY_LEVEL_OF_DETAIL, this.levelOfDetail);
+            // Once scaled, the clip is the visible area in graph coordinates
+            graph.draw(g2, this.viewportCulling ? g2.getClipBounds() : null);
+        }
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        graph.draw(g2);
+        startTime = null != metrics ? System.nanoTime() : 0;
         for (IEditorPartBehavior behavior : this.behaviorManager.getBehaviors())
         {
             behavior.onPaint(g2);
         }
+        if (null != metrics) metrics.addTime(PaintMetrics.OVERLAYS, startTime);
+        this.paintMetrics.endFrame();
+
+        if (this.performanceHudVisible)
+        {
+            Graphics2D hudGraphics = (Graphics2D) g2.create();
+            try
+            {
+                hudGraphics.setTransform(componentTransform);
+                paintPerformanceHud(hudGraphics, clip, null != metrics);
+            }
+            finally
+            {
+                hudGraphics.dispose();
+            }
+        }
     }
-    
-    
-    
-    
+
+    /**
+     * Paints the measures of the last frame. Once a frame is recorded, the display is repainted if the frame was
+     * painted around it or if it moved since it was painted.
+     * 
+     * @param g2 graphics context, not scaled
+     * @param clip area being painted, in component coordinates
+     * @param frameRecorded true if the frame being painted was recorded
+     */
+    private void paintPerformanceHud(Graphics2D g2, Rectangle clip, boolean frameRecorded)
+    {
+        PaintMetrics.Frame frame = this.paintMetrics.getLastFrame();
+        Rectangle bounds = this.performanceHud.getBounds(getVisibleRect(), frame);
+        this.performanceHud.paint(g2, bounds, frame);
+        if (!frameRecorded)
+        {
+            return;
+        }
+        if (null != this.hudBounds && !this.hudBounds.equals(bounds))
+        {
+            repaint(this.hudBounds);
+        }
+        if (!clip.contains(bounds))
+        {
+            repaint(bounds);
+        }
+        this.hudBounds = bounds;
+    }
+
     @Override
     public IEditorPartSelectionHandler getSelectionHandler()
     {
@@ -287,6 +466,28 @@ public class EditorPart extends JPanel implements IEditorPart
 
     private double zoom;
 
+    private boolean viewportCulling = true;
+
+    private LevelOfDetail levelOfDetail = LevelOfDetail.DEFAULT;
+
+    private EditorPartRepaintScheduler repaintScheduler;
+
+    private PaintMetrics paintMetrics = new PaintMetrics();
+
+    private boolean performanceHudVisible;
+
+    private PerformanceHud performanceHud = new PerformanceHud();
+
+    /**
+     * Area covered by the performance display when it was last painted, in component coordinates, or null
+     */
+    private Rectangle hudBounds;
+
+    /**
+     * Rendered parts of the editor, or null if the graph does not notify its changes
+     */
+    private EditorPartTileCache tileCache;
+
     private IEditorPartSelectionHandler selectionHandler = new EditorPartSelectionHandler();
     
     private int lastWidth = 0;
@@ -180,6 +180,13 @@ public class EditorPartBehaviorManager implements IEditorPartBehaviorManager
         for (IEditorPartBehavior aBehavior : this.behaviors)
             aBehavior.onNodeSelected(node);
     }
+
+    @Override
+    public void fireOnSelectionChanged()
+    {
+        for (IEditorPartBehavior aBehavior : this.behaviors)
+            aBehavior.onSelectionChanged();
+    }
     
     @Override
     public void fireBeforeChangingTransitionPointsOnEdge(IEdge edge)
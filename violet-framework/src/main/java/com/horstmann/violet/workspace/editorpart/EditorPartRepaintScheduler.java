@@ -0,0 +1,209 @@
+/*
+ Violet - A program for editing UML diagrams.
+
+ Copyright (C) 2007 Cay S. Horstmann (http://horstmann.com)
+ Alexandre de Pellegrin (http://alexdp.free.fr);
+
+ This program is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.
+
+ This program is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ GNU General Public License for more details.
+
+ You should have received a copy of the GNU General Public License
+ along with this program; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package com.horstmann.violet.workspace.editorpart;
+
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+/**
+ * Collects the areas of an editor part which need to be painted again and repaints them all at once, on the next turn
+ * of the event loop. Close areas are merged, so that a few areas are painted however many elements changed. Each of
+ * them is painted right away rather than handed to the repaint manager, which would merge them all into one.
+ *
+ * The editor part is laid out again only when its extent changes.
+ */
+public class EditorPartRepaintScheduler implements Runnable
+{
+    /**
+     * Constructs a scheduler for the given editor part
+     *
+     * @param editorPart editor part to repaint
+     */
+    public EditorPartRepaintScheduler(IEditorPart editorPart)
+    {
+        this.editorPart = editorPart;
+    }
+
+    /**
+     * Schedules the repaint of an area
+     *
+     * @param areaOnGraph area in graph coordinates, or null for the whole editor part
+     */
+    public synchronized void repaint(Rectangle2D areaOnGraph)
+    {
+        if (null == areaOnGraph)
+        {
+            this.wholeAreaDamaged = true;
+        }
+        else if (!this.wholeAreaDamaged)
+        {
+            double zoom = this.editorPart.getZoomFactor();
+            // One more pixel on each side for antialiasing
+            int x = (int) Math.floor(areaOnGraph.getMinX() * zoom) - 1;
+            int y = (int) Math.floor(areaOnGraph.getMinY() * zoom) - 1;
+            int width = (int) Math.ceil(areaOnGraph.getMaxX() * zoom) + 1 - x;
+            int height = (int) Math.ceil(areaOnGraph.getMaxY() * zoom) + 1 - y;
+            this.damagedAreas.add(new Rectangle(x, y, width, height));
+        }
+        if (!this.scheduled)
+        {
+            this.scheduled = true;
+            SwingUtilities.invokeLater(this);
+        }
+    }
+
+    /**
+     * Repaints the areas collected so far
+     */
+    @Override
+    public void run()
+    {
+        boolean wholeAreaDamaged;
+        List<Rectangle> damagedAreas;
+        synchronized (this)
+        {
+            wholeAreaDamaged = this.wholeAreaDamaged;
+            damagedAreas = this.damagedAreas;
+            this.wholeAreaDamaged = false;
+            this.damagedAreas = new ArrayList<Rectangle>();
+            this.scheduled = false;
+        }
+        boolean extentChanged = validateExtent();
+        JComponent component = this.editorPart.getSwingComponent();
+        if (wholeAreaDamaged)
+        {
+            component.repaint();
+            return;
+        }
+        for (Rectangle anArea : coalesce(damagedAreas))
+        {
+            if (extentChanged || !component.isShowing())
+            {
+                // Painted once laid out again
+                component.repaint(anArea);
+            }
+            else
+            {
+                component.paintImmediately(anArea);
+            }
+        }
+    }
+
+    /**
+     * Lays the editor part out again if the graph extent does not match its size anymore
+     *
+     * @return true if the editor part is to be laid out again
+     */
+    public boolean validateExtent()
+    {
+        JComponent component = this.editorPart.getSwingComponent();
+        if (null == component.getParent())
+        {
+            return false;
+        }
+        Dimension preferredSize = component.getPreferredSize();
+        if (!preferredSize.equals(component.getSize()))
+        {
+            component.revalidate();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Merges areas which overlap, or which together cover no more than apart. Past a few areas, they are all merged.
+     *
+     * @param areas areas to repaint
+     * @return merged areas
+     */
+    static List<Rectangle> coalesce(List<Rectangle> areas)
+    {
+        List<Rectangle> mergedAreas = new ArrayList<Rectangle>();
+        for (Rectangle anArea : areas)
+        {
+            Rectangle mergedArea = new Rectangle(anArea);
+            boolean grown = true;
+            while (grown)
+            {
+                grown = false;
+                Iterator<Rectangle> iterator = mergedAreas.iterator();
+                while (iterator.hasNext())
+                {
+                    Rectangle other = iterator.next();
+                    if (isWorthMerging(mergedArea, other))
+                    {
+                        mergedArea = mergedArea.union(other);
+                        iterator.remove();
+                        grown = true;
+                    }
+                }
+            }
+            mergedAreas.add(mergedArea);
+        }
+        if (mergedAreas.size() > MAX_REPAINTED_AREAS)
+        {
+            Rectangle union = mergedAreas.get(0);
+            for (Rectangle anArea : mergedAreas)
+            {
+                union = union.union(anArea);
+            }
+            mergedAreas.clear();
+            mergedAreas.add(union);
+        }
+        return mergedAreas;
+    }
+
+    private static boolean isWorthMerging(Rectangle first, Rectangle second)
+    {
+        if (first.intersects(second))
+        {
+            return true;
+        }
+        Rectangle union = first.union(second);
+        return getArea(union) <= getArea(first) + getArea(second);
+    }
+
+    private static long getArea(Rectangle rectangle)
+    {
+        return (long) rectangle.width * rectangle.height;
+    }
+
+    private final IEditorPart editorPart;
+
+    /** Areas to repaint, in component coordinates */
+    private List<Rectangle> damagedAreas = new ArrayList<Rectangle>();
+
+    private boolean wholeAreaDamaged;
+
+    /** True while a repaint is waiting in the event queue */
+    private boolean scheduled;
+
+    /** Number of areas painted at most for one turn of the event loop */
+    private static final int MAX_REPAINTED_AREAS = 8;
+}
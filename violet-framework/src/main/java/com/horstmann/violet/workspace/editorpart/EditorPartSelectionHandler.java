@@ -1,8 +1,13 @@
 package com.horstmann.violet.workspace.editorpart;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
 import com.horstmann.violet.product.diagram.abstracts.node.INode;
@@ -13,15 +18,13 @@ public class EditorPartSelectionHandler implements IEditorPartSelectionHandler
 
     public void setSelectedElement(INode node)
     {
-        this.selectedNodes.clear();
-        this.selectedEdges.clear();
+        clearSelection();
         addSelectedElement(node);
     }
 
     public void setSelectedElement(IEdge edge)
     {
-        this.selectedNodes.clear();
-        this.selectedEdges.clear();
+        clearSelection();
         addSelectedElement(edge);
     }
 
@@ -49,38 +52,50 @@ public class EditorPartSelectionHandler implements IEditorPartSelectionHandler
 
     public void addSelectedElement(INode node)
     {
-        if (this.selectedNodes.contains(node))
-        {
-            this.removeElementFromSelection(node);
-        }
-        this.selectedNodes.add(node);
+        this.selectedNodes.moveToEnd(node);
     }
 
     public void addSelectedElement(IEdge edge)
     {
-        if (this.selectedEdges.contains(edge))
+        this.selectedEdges.moveToEnd(edge);
+    }
+
+    public boolean addSelectedElements(Collection<? extends INode> nodes, Collection<? extends IEdge> edges)
+    {
+        boolean changed = false;
+        for (INode aNode : nodes)
         {
-            this.removeElementFromSelection(edge);
+            changed |= this.selectedNodes.moveToEnd(aNode);
         }
-        this.selectedEdges.add(edge);
+        for (IEdge anEdge : edges)
+        {
+            changed |= this.selectedEdges.moveToEnd(anEdge);
+        }
+        return changed;
     }
 
     public void removeElementFromSelection(INode node)
     {
-        if (this.selectedNodes.contains(node))
-        {
-            int i = this.selectedNodes.indexOf(node);
-            this.selectedNodes.remove(i);
-        }
+        this.selectedNodes.removeElement(node);
     }
 
     public void removeElementFromSelection(IEdge edge)
     {
-        if (this.selectedEdges.contains(edge))
+        this.selectedEdges.removeElement(edge);
+    }
+
+    public boolean removeElementsFromSelection(Collection<? extends INode> nodes, Collection<? extends IEdge> edges)
+    {
+        boolean changed = false;
+        for (INode aNode : nodes)
+        {
+            changed |= this.selectedNodes.removeElement(aNode);
+        }
+        for (IEdge anEdge : edges)
         {
-            int i = this.selectedEdges.indexOf(edge);
-            this.selectedEdges.remove(i);
+            changed |= this.selectedEdges.removeElement(anEdge);
         }
+        return changed;
     }
 
     public boolean isElementAlreadySelected(INode node)
@@ -97,8 +112,8 @@ public class EditorPartSelectionHandler implements IEditorPartSelectionHandler
 
     public void clearSelection()
     {
-        this.selectedNodes.clear();
-        this.selectedEdges.clear();
+        this.selectedNodes.removeAllElements();
+        this.selectedEdges.removeAllElements();
     }
 
     public INode getLastSelectedNode()
@@ -123,12 +138,12 @@ public class EditorPartSelectionHandler implements IEditorPartSelectionHandler
 
     public List<INode> getSelectedNodes()
     {
-        return Collections.unmodifiableList(selectedNodes);
+        return this.selectedNodes;
     }
 
     public List<IEdge> getSelectedEdges()
     {
-        return Collections.unmodifiableList(selectedEdges);
+        return this.selectedEdges;
     }
 
     @Override
@@ -153,8 +168,82 @@ public class EditorPartSelectionHandler implements IEditorPartSelectionHandler
         return list.get(size - 1);
     }
 
-    private List<INode> selectedNodes = new ArrayList<INode>();
-    private List<IEdge> selectedEdges = new ArrayList<IEdge>();
+    /**
+     * Selected elements kept in a hash set so that membership tests and
+     * removals don't depend on the selection size. Callers see it as an
+     * unmodifiable list in selection order; positional access goes through
+     * a snapshot rebuilt after each change.
+     *
+     * @param <T> type of selected element
+     */
+    private static class Selection<T> extends AbstractList<T>
+    {
+        /**
+         * Appends an element, moving it to the end if it is already selected
+         *
+         * @return true if the element was not selected before
+         */
+        boolean moveToEnd(T element)
+        {
+            boolean removed = this.elements.remove(element);
+            this.elements.add(element);
+            this.snapshot = null;
+            return !removed;
+        }
+
+        boolean removeElement(T element)
+        {
+            if (!this.elements.remove(element))
+            {
+                return false;
+            }
+            this.snapshot = null;
+            return true;
+        }
+
+        void removeAllElements()
+        {
+            if (!this.elements.isEmpty())
+            {
+                this.elements.clear();
+                this.snapshot = null;
+            }
+        }
+
+        @Override
+        public T get(int index)
+        {
+            if (null == this.snapshot)
+            {
+                this.snapshot = new ArrayList<T>(this.elements);
+            }
+            return this.snapshot.get(index);
+        }
+
+        @Override
+        public int size()
+        {
+            return this.elements.size();
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            return this.elements.contains(o);
+        }
+
+        @Override
+        public Iterator<T> iterator()
+        {
+            return Collections.unmodifiableSet(this.elements).iterator();
+        }
+
+        private final Set<T> elements = new LinkedHashSet<T>();
+        private List<T> snapshot;
+    }
+
+    private Selection<INode> selectedNodes = new Selection<INode>();
+    private Selection<IEdge> selectedEdges = new Selection<IEdge>();
     
     private GraphTool selectedTool;
 
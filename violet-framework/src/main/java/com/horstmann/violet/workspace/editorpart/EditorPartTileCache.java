@@ -0,0 +1,681 @@
+/*
+ Violet - A program for editing UML diagrams.
+
+ Copyright (C) 2007 Cay S. Horstmann (http://horstmann.com)
+ Alexandre de Pellegrin (http://alexdp.free.fr);
+
+ This program is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.
+
+ This program is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ GNU General Public License for more details.
+
+ You should have received a copy of the GNU General Public License
+ along with this program; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package com.horstmann.violet.workspace.editorpart;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.horstmann.violet.framework.graphics.LevelOfDetail;
+import com.horstmann.violet.framework.graphics.PaintMetrics;
+import com.horstmann.violet.framework.theme.ITheme;
+import com.horstmann.violet.framework.theme.ThemeManager;
+import com.horstmann.violet.product.diagram.abstracts.AbstractGraph;
+import com.horstmann.violet.product.diagram.abstracts.GraphChange;
+import com.horstmann.violet.product.diagram.abstracts.IGraphListener;
+import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
+import com.horstmann.violet.product.diagram.abstracts.node.INode;
+import com.horstmann.violet.product.diagram.abstracts.node.NodeSpriteCache;
+
+/**
+ * Backing store of an editor part. The grid and the graph are rendered into fixed size tiles which are kept per zoom
+ * level and device scale, so that repainting an unchanged area only copies images. Tiles hold one pixel per device
+ * pixel, which keeps them sharp on high resolution displays.
+ *
+ * Tiles are dropped where graph changes land. The area each element was last seen on is remembered, so that both the
+ * area it leaves and the area it moves to are painted again. Geometry changes which come with no change notification
+ * drop every tile.
+ *
+ * While nodes are dragged, tiles are rendered without them and the edges connected to them, which are drawn over the
+ * tiles on each paint instead. Moving them then leaves every tile valid.
+ *
+ * Areas whose tiles are dropped, or which dragged elements leave or reach, are passed on to the repaint scheduler.
+ */
+public class EditorPartTileCache implements IGraphListener
+{
+
+    /**
+     * Constructs a cache for the given editor part
+     *
+     * @param editorPart the editor to paint
+     * @param graph graph displayed by the editor
+     * @param repaintScheduler scheduler repainting the areas which changed
+     */
+    public EditorPartTileCache(IEditorPart editorPart, AbstractGraph graph, EditorPartRepaintScheduler repaintScheduler)
+    {
+        this.editorPart = editorPart;
+        this.graph = graph;
+        this.repaintScheduler = repaintScheduler;
+        graph.addGraphListener(this);
+    }
+
+    /**
+     * Paints the grid and the graph over the given area
+     *
+     * @param g2 graphics context, not zoomed, carrying the paint metrics recording the frame if any
+     * @param clip area to paint, in component coordinates
+     * @param viewportCulling true to render only visible elements into each tile
+     * @param levelOfDetail level of detail to render tiles with
+     * @return false, with nothing painted, when the device transform of the graphics context is rotated or not
+     *         uniformly scaled, so that tiles cannot be copied pixel for pixel
+     */
+    public boolean paint(Graphics2D g2, Rectangle clip, boolean viewportCulling, LevelOfDetail levelOfDetail)
+    {
+        AffineTransform transform = g2.getTransform();
+        int transformType = transform.getType() & ~(AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_UNIFORM_SCALE);
+        if (0 != transformType || 0 >= transform.getScaleX())
+        {
+            return false;
+        }
+        double scale = transform.getScaleX();
+        long originX = Math.round(transform.getTranslateX());
+        long originY = Math.round(transform.getTranslateY());
+        checkEnvironment();
+        if (null == this.knownAreas)
+        {
+            rememberAreas();
+        }
+        double zoom = this.editorPart.getZoomFactor();
+        int minColumn = Math.max(0, clip.x / TILE_SIZE);
+        int minRow = Math.max(0, clip.y / TILE_SIZE);
+        int maxColumn = (clip.x + clip.width - 1) / TILE_SIZE;
+        int maxRow = (clip.y + clip.height - 1) / TILE_SIZE;
+        this.maxTiles = Math.max(MIN_CACHED_TILES, 2 * (maxColumn - minColumn + 1) * (maxRow - minRow + 1));
+        boolean incomplete = false;
+        PaintMetrics metrics = PaintMetrics.getRecording(g2);
+        for (int column = minColumn; column <= maxColumn; ++column)
+        {
+            for (int row = minRow; row <= maxRow; ++row)
+            {
+                TileKey key = new TileKey(zoom, scale, column, row);
+                BufferedImage tile = this.tiles.get(key);
+                if (null == tile)
+                {
+                    int generation = this.generation;
+                    tile = render(key, viewportCulling, levelOfDetail, metrics);
+                    if (generation == this.generation)
+                    {
+                        this.tiles.put(key, tile);
+                    }
+                    else
+                    {
+                        // The graph changed while this tile was rendered : show it once, then paint again
+                        incomplete = true;
+                    }
+                }
+                long startTime = null != metrics ? System.nanoTime() : 0;
+                g2.setTransform(new AffineTransform());
+                g2.drawImage(tile, (int) (originX + key.getPixelX()), (int) (originY + key.getPixelY()), null);
+                g2.setTransform(transform);
+                if (null != metrics) metrics.addTime(PaintMetrics.TILES, startTime);
+            }
+        }
+        if (null != this.draggedElements)
+        {
+            paintDraggedElements(g2, clip, viewportCulling, levelOfDetail);
+        }
+        this.revision = this.graph.getGeometryRevision();
+        this.changed = false;
+        if (!incomplete)
+        {
+            this.incompletePaints = 0;
+        }
+        else if (++this.incompletePaints <= MAX_INCOMPLETE_PAINTS)
+        {
+            this.repaintScheduler.repaint(null);
+        }
+        return true;
+    }
+
+    /**
+     * Starts drawing the given nodes, with their children and the edges connected to them, over the tiles until
+     * {@link #endDragging()} is called
+     *
+     * @param nodes dragged nodes
+     */
+    public void beginDragging(Collection<INode> nodes)
+    {
+        endDragging();
+        Set<Object> draggedElements = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        for (INode aNode : nodes)
+        {
+            INode root = getRoot(aNode);
+            if (draggedElements.add(root))
+            {
+                addConnectedEdges(root, draggedElements);
+            }
+        }
+        this.draggedElements = draggedElements;
+        this.draggedAreas = new IdentityHashMap<Object, Rectangle2D>();
+        if (null == this.knownAreas)
+        {
+            return;
+        }
+        // Tiles under dragged elements are rendered again without them
+        for (Object anElement : draggedElements)
+        {
+            Rectangle2D knownArea = this.knownAreas.get(anElement);
+            if (null == knownArea)
+            {
+                invalidate(null);
+                return;
+            }
+            invalidate(knownArea);
+        }
+    }
+
+    /**
+     * Renders dragged elements into tiles again, where they were dropped
+     */
+    public void endDragging()
+    {
+        Set<Object> draggedElements = this.draggedElements;
+        if (null == draggedElements)
+        {
+            return;
+        }
+        this.draggedElements = null;
+        this.draggedAreas = null;
+        for (Object anElement : draggedElements)
+        {
+            if (null == this.knownAreas)
+            {
+                return;
+            }
+            if (!this.knownAreas.containsKey(anElement))
+            {
+                // Removed while dragged
+                continue;
+            }
+            if (anElement instanceof INode)
+            {
+                updateArea((INode) anElement);
+            }
+            else
+            {
+                updateArea((IEdge) anElement);
+            }
+        }
+    }
+
+    /**
+     * Drops the tiles over the given area
+     *
+     * @param areaOnGraph area in graph coordinates, or null to drop every tile
+     */
+    public void invalidate(Rectangle2D areaOnGraph)
+    {
+        ++this.generation;
+        this.repaintScheduler.repaint(areaOnGraph);
+        if (null == areaOnGraph)
+        {
+            this.tiles.clear();
+            this.knownAreas = null;
+            return;
+        }
+        Iterator<TileKey> keys = this.tiles.keySet().iterator();
+        while (keys.hasNext())
+        {
+            TileKey key = keys.next();
+            if (areaOnGraph.intersects(key.getAreaOnGraph()))
+            {
+                keys.remove();
+            }
+        }
+    }
+
+    @Override
+    public void onGraphChanged(List<GraphChange> changes)
+    {
+        if (this.rememberingAreas)
+        {
+            return;
+        }
+        this.changed = true;
+        for (GraphChange aChange : changes)
+        {
+            if (null == this.knownAreas)
+            {
+                // Every tile is already dropped
+                return;
+            }
+            INode node = aChange.getNode();
+            IEdge edge = aChange.getEdge();
+            switch (aChange.getType())
+            {
+            case NODE_REMOVED:
+                if (!invalidateKnownArea(node))
+                {
+                    invalidate(null);
+                }
+                break;
+            case EDGE_REMOVED:
+                if (!invalidateKnownArea(edge))
+                {
+                    invalidate(null);
+                }
+                break;
+            case NODE_REPARENTED:
+                // The former parent is unknown
+                invalidate(null);
+                break;
+            default:
+                if (null != this.draggedElements && this.draggedElements.contains(null != node ? getRoot(node) : edge))
+                {
+                    // Dragged elements are drawn over the tiles, which stay valid
+                    if (null != node)
+                    {
+                        repaintDraggedArea(getRoot(node));
+                    }
+                    else
+                    {
+                        repaintDraggedArea(edge);
+                    }
+                    break;
+                }
+                if (null != node)
+                {
+                    updateArea(getRoot(node));
+                }
+                else
+                {
+                    updateArea(edge);
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * Drops every tile when something painted in them changed without notifying the graph listeners
+     */
+    private void checkEnvironment()
+    {
+        ITheme theme = ThemeManager.getInstance().getTheme();
+        boolean gridVisible = this.editorPart.getGrid().isVisible();
+        boolean unexplainedChange = !this.changed && this.revision != this.graph.getGeometryRevision();
+        if (unexplainedChange || theme != this.theme || gridVisible != this.gridVisible)
+        {
+            // The paint under way renders every tile again, no repaint is needed
+            ++this.generation;
+            this.tiles.clear();
+            this.knownAreas = null;
+        }
+        this.theme = theme;
+        this.gridVisible = gridVisible;
+    }
+
+    /**
+     * Records where every top level node and every edge paints
+     */
+    private void rememberAreas()
+    {
+        this.rememberingAreas = true;
+        try
+        {
+            long revision;
+            int attempts = 0;
+            do
+            {
+                // Computing bounds may lay out nodes again
+                revision = this.graph.getGeometryRevision();
+                this.knownAreas = new IdentityHashMap<Object, Rectangle2D>();
+                for (INode aNode : this.graph.getAllNodes())
+                {
+                    if (null == aNode.getParent())
+                    {
+                        this.knownAreas.put(aNode, this.graph.getDrawingBounds(aNode));
+                    }
+                }
+                for (IEdge anEdge : this.graph.getAllEdges())
+                {
+                    this.knownAreas.put(anEdge, this.graph.getDrawingBounds(anEdge));
+                }
+            }
+            while (revision != this.graph.getGeometryRevision() && ++attempts < MAX_REMEMBER_ATTEMPTS);
+        }
+        finally
+        {
+            this.rememberingAreas = false;
+        }
+    }
+
+    /**
+     * Drops the tiles covering the old and the new area of a top level node, then those of the edges connected to it
+     * or to its children, which follow it.
+     */
+    private void updateArea(INode root)
+    {
+        Rectangle2D area = this.graph.getDrawingBounds(root);
+        invalidate(area, this.knownAreas.put(root, area));
+        updateConnectedEdgeAreas(root);
+    }
+
+    private void updateConnectedEdgeAreas(INode node)
+    {
+        for (IEdge anEdge : this.graph.getConnectedEdges(node))
+        {
+            updateArea(anEdge);
+        }
+        for (INode aChild : node.getChildren())
+        {
+            updateConnectedEdgeAreas(aChild);
+        }
+    }
+
+    private void updateArea(IEdge edge)
+    {
+        if (null == edge.getStartNode() || null == edge.getEndNode())
+        {
+            return;
+        }
+        Rectangle2D area = this.graph.getDrawingBounds(edge);
+        invalidate(area, this.knownAreas.put(edge, area));
+    }
+
+    private boolean invalidateKnownArea(Object element)
+    {
+        Rectangle2D knownArea = this.knownAreas.remove(element);
+        if (null == knownArea)
+        {
+            return false;
+        }
+        invalidate(knownArea);
+        return true;
+    }
+
+    private void invalidate(Rectangle2D area, Rectangle2D previousArea)
+    {
+        invalidate(area);
+        if (null != previousArea && !previousArea.equals(area))
+        {
+            invalidate(previousArea);
+        }
+    }
+
+    /**
+     * Repaints the old and the new area of a dragged top level node, then those of the edges connected to it or to its
+     * children
+     */
+    private void repaintDraggedArea(INode root)
+    {
+        repaintDraggedArea(root, this.graph.getDrawingBounds(root));
+        repaintConnectedDraggedAreas(root);
+    }
+
+    private void repaintConnectedDraggedAreas(INode node)
+    {
+        for (IEdge anEdge : this.graph.getConnectedEdges(node))
+        {
+            repaintDraggedArea(anEdge);
+        }
+        for (INode aChild : node.getChildren())
+        {
+            repaintConnectedDraggedAreas(aChild);
+        }
+    }
+
+    private void repaintDraggedArea(IEdge edge)
+    {
+        if (null == edge.getStartNode() || null == edge.getEndNode())
+        {
+            return;
+        }
+        repaintDraggedArea(edge, this.graph.getDrawingBounds(edge));
+    }
+
+    private void repaintDraggedArea(Object element, Rectangle2D area)
+    {
+        Rectangle2D previousArea = this.draggedAreas.put(element, area);
+        if (null == previousArea && null != this.knownAreas)
+        {
+            previousArea = this.knownAreas.get(element);
+        }
+        this.repaintScheduler.repaint(area);
+        if (null != previousArea && !previousArea.equals(area))
+        {
+            this.repaintScheduler.repaint(previousArea);
+        }
+    }
+
+    private void addConnectedEdges(INode node, Set<Object> elements)
+    {
+        elements.addAll(this.graph.getConnectedEdges(node));
+        for (INode aChild : node.getChildren())
+        {
+            addConnectedEdges(aChild, elements);
+        }
+    }
+
+    private void paintDraggedElements(Graphics2D g2, Rectangle clip, boolean viewportCulling,
+            LevelOfDetail levelOfDetail)
+    {
+        double zoom = this.editorPart.getZoomFactor();
+        Graphics2D overlay = (Graphics2D) g2.create();
+        try
+        {
+            overlay.clip(clip);
+            overlay.scale(zoom, zoom);
+            overlay.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            overlay.setRenderingHint(NodeSpriteCache.KEY_NODE_SPRITES, Boolean.TRUE);
+            overlay.setRenderingHint(LevelOfDetail.KEY_LEVEL_OF_DETAIL, levelOfDetail);
+            Rectangle2D clipOnGraph = new Rectangle2D.Double(clip.x / zoom, clip.y / zoom, clip.width / zoom,
+                    clip.height / zoom);
+            this.graph.drawLayer(overlay, viewportCulling ? clipOnGraph : null, this.draggedElements, true);
+        }
+        finally
+        {
+            overlay.dispose();
+        }
+    }
+
+    private INode getRoot(INode node)
+    {
+        INode root = node;
+        while (null != root.getParent())
+        {
+            root = root.getParent();
+        }
+        return root;
+    }
+
+    private BufferedImage render(TileKey key, boolean viewportCulling, LevelOfDetail levelOfDetail,
+            PaintMetrics metrics)
+    {
+        int width = key.getPixelWidth();
+        int height = key.getPixelHeight();
+        BufferedImage tile = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = tile.createGraphics();
+        try
+        {
+            g2.setColor(this.editorPart.getSwingComponent().getBackground());
+            g2.fillRect(0, 0, width, height);
+            g2.translate(-key.getPixelX(), -key.getPixelY());
+            g2.scale(key.scale * key.zoom, key.scale * key.zoom);
+            if (this.gridVisible)
+            {
+                long startTime = null != metrics ? System.nanoTime() : 0;
+                this.editorPart.getGrid().paint(g2);
+                if (null != metrics) metrics.addTime(PaintMetrics.GRID, startTime);
+            }
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(NodeSpriteCache.KEY_NODE_SPRITES, Boolean.TRUE);
+            g2.setRenderingHint(LevelOfDetail.KEY_LEVEL_OF_DETAIL, levelOfDetail);
+            if (null != metrics)
+            {
+                g2.setRenderingHint(PaintMetrics.KEY_PAINT_METRICS, metrics);
+            }
+            Rectangle2D visibleArea = viewportCulling ? key.getAreaOnGraph() : null;
+            if (null == this.draggedElements)
+            {
+                this.graph.draw(g2, visibleArea);
+            }
+            else
+            {
+                this.graph.drawLayer(g2, visibleArea, this.draggedElements, false);
+            }
+        }
+        finally
+        {
+            g2.dispose();
+        }
+        return tile;
+    }
+
+    /**
+     * Identifies a tile by its zoom level, its device scale and its position in tile units. Tiles span whole device
+     * pixels, so that neighbours overlap by one pixel when the device scale is fractional.
+     */
+    private static class TileKey
+    {
+        TileKey(double zoom, double scale, int column, int row)
+        {
+            this.zoom = zoom;
+            this.scale = scale;
+            this.column = column;
+            this.row = row;
+        }
+
+        int getPixelX()
+        {
+            return (int) Math.floor(this.column * TILE_SIZE * this.scale);
+        }
+
+        int getPixelY()
+        {
+            return (int) Math.floor(this.row * TILE_SIZE * this.scale);
+        }
+
+        int getPixelWidth()
+        {
+            return (int) Math.ceil((this.column + 1) * TILE_SIZE * this.scale) - getPixelX();
+        }
+
+        int getPixelHeight()
+        {
+            return (int) Math.ceil((this.row + 1) * TILE_SIZE * this.scale) - getPixelY();
+        }
+
+        /**
+         * @return the area covered by the pixels of this tile, in graph coordinates
+         */
+        Rectangle2D getAreaOnGraph()
+        {
+            double pixelSizeOnGraph = 1 / (this.scale * this.zoom);
+            return new Rectangle2D.Double(getPixelX() * pixelSizeOnGraph, getPixelY() * pixelSizeOnGraph,
+                    getPixelWidth() * pixelSizeOnGraph, getPixelHeight() * pixelSizeOnGraph);
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof TileKey))
+            {
+                return false;
+            }
+            TileKey other = (TileKey) obj;
+            return this.zoom == other.zoom && this.scale == other.scale && this.column == other.column
+                    && this.row == other.row;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            long zoomBits = Double.doubleToLongBits(this.zoom);
+            long scaleBits = Double.doubleToLongBits(this.scale);
+            int hash = 31 * (int) (zoomBits ^ (zoomBits >>> 32)) + (int) (scaleBits ^ (scaleBits >>> 32));
+            return (31 * hash + this.column) * 31 + this.row;
+        }
+
+        final double zoom;
+        final double scale;
+        final int column;
+        final int row;
+    }
+
+    private IEditorPart editorPart;
+
+    private AbstractGraph graph;
+
+    /** Rendered tiles, least recently painted first */
+    private Map<TileKey, BufferedImage> tiles = new LinkedHashMap<TileKey, BufferedImage>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TileKey, BufferedImage> eldest)
+        {
+            return size() > maxTiles;
+        }
+    };
+
+    private int maxTiles = MIN_CACHED_TILES;
+
+    /** Areas last painted by top level nodes and edges, on graph. Null when no tile is left */
+    private Map<Object, Rectangle2D> knownAreas;
+
+    private boolean rememberingAreas;
+
+    /** Top level nodes and edges drawn over the tiles, or null when nothing is dragged */
+    private Set<Object> draggedElements;
+
+    /** Areas last painted by dragged elements, on graph */
+    private Map<Object, Rectangle2D> draggedAreas;
+
+    private EditorPartRepaintScheduler repaintScheduler;
+
+    /** Increased each time tiles are dropped */
+    private int generation;
+
+    /** Graph geometry revision when tiles were last painted */
+    private long revision;
+
+    /** True if graph listeners were notified since tiles were last painted */
+    private boolean changed;
+
+    /** Number of paints in a row which showed tiles rendered while the graph changed */
+    private int incompletePaints;
+
+    private ITheme theme;
+
+    private boolean gridVisible;
+
+    /** Tile width and height, in pixels */
+    private static final int TILE_SIZE = 256;
+
+    private static final int MIN_CACHED_TILES = 64;
+
+    private static final int MAX_REMEMBER_ATTEMPTS = 3;
+
+    /** Number of paints in a row whose tiles went stale while rendered, after which no repaint is scheduled */
+    private static final int MAX_INCOMPLETE_PAINTS = 3;
+
+}
@@ -1,9 +1,11 @@
 package com.horstmann.violet.workspace.editorpart;
 
+import java.awt.geom.Rectangle2D;
 import java.util.List;
 
 import javax.swing.JComponent;
 
+import com.horstmann.violet.framework.graphics.PaintMetrics;
 import com.horstmann.violet.product.diagram.abstracts.IGraph;
 import com.horstmann.violet.product.diagram.abstracts.node.INode;
 
@@ -55,6 +57,11 @@ public interface IEditorPart
      * @return current zoom factor
      */
     public double getZoomFactor();
+
+    /**
+     * Name of the property change the Swing component of an editor fires when its zoom factor changes
+     */
+    public static final String ZOOM_PROPERTY = "zoomFactor";
     
     /**
      * @return the grid used to keep elements aligned
@@ -71,6 +78,34 @@ public interface IEditorPart
      */
     public void clipDrawingArea();
 
+    /**
+     * Repaints the given area from the graph, for changes the graph does not notify, such as a new text color
+     * 
+     * @param areaOnGraph area in graph coordinates, or null for the whole drawing area
+     */
+    public void invalidateDrawingArea(Rectangle2D areaOnGraph);
+
+    /**
+     * Repaints the given area without drawing the graph again, for what behaviors paint over it such as selection
+     * grabbers
+     * 
+     * @param areaOnGraph area in graph coordinates, or null for the whole drawing area
+     */
+    public void repaintDrawingArea(Rectangle2D areaOnGraph);
+
+    /**
+     * Paints the given nodes and the edges connected to them over the rest of the graph, which is kept still, until
+     * {@link #endDragging()} is called
+     * 
+     * @param nodes dragged nodes
+     */
+    public void beginDragging(List<INode> nodes);
+
+    /**
+     * Paints dragged nodes with the rest of the graph again
+     */
+    public void endDragging();
+
     /**
      * @return the awt object displaying this editor part
      */
@@ -85,6 +120,23 @@ public interface IEditorPart
      * @return manager used to declare new editor behaviors and how to send events between behaviors
      */
     public IEditorPartBehaviorManager getBehaviorManager();
+
+    /**
+     * @return time spent painting the last frame, phase by phase, recorded while enabled
+     */
+    public PaintMetrics getPaintMetrics();
+
+    /**
+     * @return true if the measures of the last frame are shown over the graph
+     */
+    public boolean isPerformanceHudVisible();
+
+    /**
+     * Shows or hides the measures of the last frame over the graph. Frames are measured while they are shown.
+     * 
+     * @param visible
+     */
+    public void setPerformanceHudVisible(boolean visible);
     
    
 
@@ -60,6 +60,8 @@ public interface IEditorPartBehaviorManager
     
     public abstract void fireOnEdgeSelected(IEdge edge);
 
+    public abstract void fireOnSelectionChanged();
+
     public abstract void fireBeforeChangingTransitionPointsOnEdge(IEdge edge);
 
     public abstract void fireAfterChangingTransitionPointsOnEdge(IEdge edge);
@@ -1,5 +1,6 @@
 package com.horstmann.violet.workspace.editorpart;
 
+import java.util.Collection;
 import java.util.List;
 
 import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
@@ -16,10 +17,25 @@ public interface IEditorPartSelectionHandler {
 
 	public abstract void addSelectedElement(IEdge edge);
 
+	/**
+	 * Adds several elements in one go. Callers are expected to notify the
+	 * behaviors once for the whole batch instead of once per element.
+	 * 
+	 * @return true if at least one element was not selected before
+	 */
+	public abstract boolean addSelectedElements(Collection<? extends INode> nodes, Collection<? extends IEdge> edges);
+
 	public abstract void removeElementFromSelection(INode node);
 
 	public abstract void removeElementFromSelection(IEdge edge);
 
+	/**
+	 * Removes several elements in one go
+	 * 
+	 * @return true if at least one element was selected before
+	 */
+	public abstract boolean removeElementsFromSelection(Collection<? extends INode> nodes, Collection<? extends IEdge> edges);
+
 	public abstract boolean isElementAlreadySelected(INode node);
 
 	public abstract boolean isElementAlreadySelected(IEdge edge);
@@ -0,0 +1,95 @@
+package com.horstmann.violet.workspace.editorpart;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.horstmann.violet.framework.graphics.PaintMetrics;
+
+/**
+ * Shows the measures of the last frame painted by an editor part in the top right corner of its visible area
+ */
+class PerformanceHud
+{
+    /**
+     * @param visibleArea visible area of the editor part, in component coordinates
+     * @param frame frame to show, or null if none was recorded yet
+     * @return area covered by the display, in component coordinates
+     */
+    Rectangle getBounds(Rectangle visibleArea, PaintMetrics.Frame frame)
+    {
+        int lineCount = getLines(frame).size();
+        int height = 2 * MARGIN + lineCount * LINE_HEIGHT;
+        return new Rectangle(visibleArea.x + visibleArea.width - WIDTH - MARGIN, visibleArea.y + MARGIN, WIDTH, height);
+    }
+
+    /**
+     * Paints the display
+     *
+     * @param g2 graphics context, not scaled
+     * @param bounds area given by {@link #getBounds(Rectangle, PaintMetrics.Frame)}
+     * @param frame frame to show, or null if none was recorded yet
+     */
+    void paint(Graphics2D g2, Rectangle bounds, PaintMetrics.Frame frame)
+    {
+        g2.setColor(BACKGROUND);
+        g2.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
+        g2.setColor(Color.WHITE);
+        g2.setFont(FONT);
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        FontMetrics fontMetrics = g2.getFontMetrics();
+        int y = bounds.y + MARGIN + fontMetrics.getAscent();
+        for (String line : getLines(frame))
+        {
+            g2.drawString(line, bounds.x + MARGIN, y);
+            y += LINE_HEIGHT;
+        }
+    }
+
+    private List<String> getLines(PaintMetrics.Frame frame)
+    {
+        List<String> lines = new ArrayList<String>();
+        if (null == frame)
+        {
+            lines.add("No frame recorded yet");
+            return lines;
+        }
+        String allocated = frame.getAllocatedBytes() < 0 ? "n/a" : (frame.getAllocatedBytes() / 1024) + " KB";
+        lines.add(String.format("Frame %7.2f ms %5d elements", toMillis(frame.getDuration()), frame.getElementCount()));
+        lines.add("Allocated " + allocated);
+        for (PaintMetrics.Phase phase : frame.getPhases())
+        {
+            if (lines.size() == MAX_LINES)
+            {
+                lines.add("...");
+                break;
+            }
+            lines.add(String.format("%-22.22s %7.2f ms %5d", phase.getName(), toMillis(phase.getDuration()),
+                    phase.getCount()));
+        }
+        return lines;
+    }
+
+    private static double toMillis(long nanos)
+    {
+        return nanos / 1000000.0;
+    }
+
+    private static final int MARGIN = 6;
+
+    private static final int WIDTH = 300;
+
+    private static final int LINE_HEIGHT = 14;
+
+    /** Number of lines shown at most, phases beyond are left out */
+    private static final int MAX_LINES = 24;
+
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+
+    private static final Color BACKGROUND = new Color(0, 0, 0, 180);
+}
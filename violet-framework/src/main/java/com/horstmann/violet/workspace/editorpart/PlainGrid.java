@@ -24,11 +24,16 @@ package com.horstmann.violet.workspace.editorpart;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
 import java.awt.Stroke;
+import java.awt.TexturePaint;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 
 import com.horstmann.violet.framework.theme.ThemeManager;
 import com.horstmann.violet.product.diagram.abstracts.IGraph;
@@ -85,6 +90,7 @@ public class PlainGrid implements IGrid
             snappingWidth /= FACTOR;
             snappingHeight /= FACTOR;
         }
+        editorPart.invalidateDrawingArea(null);
     }
 
     /**
@@ -109,25 +115,149 @@ public class PlainGrid implements IGrid
                 / scaleY, graphBounds.getMaxY()));
     }
 
+    /**
+     * Draws the grid without antialiasing. When a grid cell spans a whole number of pixels, it is filled with a
+     * texture made of one cell, which is only drawn again when the grid size, the zoom factor or the grid color change.
+     * Otherwise, only the lines crossing the clip are drawn.
+     */
     @Override
     public void paint(Graphics2D g2)
     {
         if (snappingWidth == 0 || snappingHeight == 0) return;
         Color oldColor = g2.getColor();
+        Paint oldPaint = g2.getPaint();
+        Object oldAntialiasing = g2.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
         Rectangle2D.Double bounds = getBounds(g2);
-        g2.setColor(Color.WHITE);
-        g2.fill(bounds);
-        g2.setColor(ThemeManager.getInstance().getTheme().getGridColor());
-        Stroke oldStroke = g2.getStroke();
-        for (double x = bounds.getX(); x < bounds.getMaxX(); x += snappingWidth)
-            g2.draw(new Line2D.Double(x, bounds.getY(), x, bounds.getMaxY()));
-        for (double y = bounds.getY(); y < bounds.getMaxY(); y += snappingHeight)
-            g2.draw(new Line2D.Double(bounds.getX(), y, bounds.getMaxX(), y));
-        g2.setStroke(oldStroke);
+        Color gridColor = ThemeManager.getInstance().getTheme().getGridColor();
+        TexturePaint texture = getTexture(g2, gridColor);
+        if (texture != null)
+        {
+            paintTexture(g2, bounds, texture);
+            g2.setColor(gridColor);
+            g2.draw(new Line2D.Double(bounds.getX(), bounds.getY(), bounds.getX(), bounds.getMaxY()));
+            g2.draw(new Line2D.Double(bounds.getX(), bounds.getY(), bounds.getMaxX(), bounds.getY()));
+        }
+        else
+        {
+            paintLines(g2, bounds, gridColor);
+        }
+        g2.setPaint(oldPaint);
         g2.setColor(oldColor);
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, oldAntialiasing);
+    }
+
+    /**
+     * Fills the grid bounds with the texture, in device space so that the texture is not resampled
+     */
+    private void paintTexture(Graphics2D g2, Rectangle2D bounds, TexturePaint texture)
+    {
+        AffineTransform transform = g2.getTransform();
+        double translateX = transform.getTranslateX();
+        double translateY = transform.getTranslateY();
+        // Pixels are filled when their center is inside the bounds
+        int minX = (int) Math.ceil(bounds.getMinX() * transform.getScaleX() - 0.5);
+        int minY = (int) Math.ceil(bounds.getMinY() * transform.getScaleY() - 0.5);
+        int maxX = (int) Math.ceil(bounds.getMaxX() * transform.getScaleX() - 0.5);
+        int maxY = (int) Math.ceil(bounds.getMaxY() * transform.getScaleY() - 0.5);
+        g2.setTransform(AffineTransform.getTranslateInstance(translateX, translateY));
+        g2.setPaint(texture);
+        g2.fillRect(minX, minY, maxX - minX, maxY - minY);
+        g2.setTransform(transform);
+    }
+
+    /**
+     * Draws the grid lines which cross the clip
+     */
+    private void paintLines(Graphics2D g2, Rectangle2D bounds, Color gridColor)
+    {
+        Rectangle2D area = bounds;
+        Rectangle clip = g2.getClipBounds();
+        if (clip != null)
+        {
+            // Lines are drawn a bit past the clip, so that their ends do not show
+            area = bounds.createIntersection(new Rectangle2D.Double(clip.getX() - snappingWidth, clip.getY()
+                    - snappingHeight, clip.getWidth() + 2 * snappingWidth, clip.getHeight() + 2 * snappingHeight));
+            if (area.isEmpty()) return;
+        }
+        g2.setColor(Color.WHITE);
+        g2.fill(area);
+        g2.setColor(gridColor);
+        for (double x = Math.ceil((area.getX() - bounds.getX()) / snappingWidth) * snappingWidth + bounds.getX(); x < area
+                .getMaxX(); x += snappingWidth)
+            g2.draw(new Line2D.Double(x, area.getY(), x, area.getMaxY()));
+        for (double y = Math.ceil((area.getY() - bounds.getY()) / snappingHeight) * snappingHeight + bounds.getY(); y < area
+                .getMaxY(); y += snappingHeight)
+            g2.draw(new Line2D.Double(area.getX(), y, area.getMaxX(), y));
+    }
+
+    /**
+     * @return a texture made of one grid cell at the current zoom factor, or null if a cell does not span a whole
+     *         number of pixels
+     */
+    private TexturePaint getTexture(Graphics2D g2, Color gridColor)
+    {
+        AffineTransform transform = g2.getTransform();
+        Stroke stroke = g2.getStroke();
+        double scaleX = transform.getScaleX();
+        double scaleY = transform.getScaleY();
+        if (transform.getShearX() != 0 || transform.getShearY() != 0 || !isWholePixel(transform.getTranslateX())
+                || !isWholePixel(transform.getTranslateY()))
+        {
+            return null;
+        }
+        if (this.texture != null && this.textureSnappingWidth == snappingWidth && this.textureSnappingHeight == snappingHeight
+                && this.textureScaleX == scaleX && this.textureScaleY == scaleY && this.textureColor.equals(gridColor)
+                && this.textureStroke.equals(stroke))
+        {
+            return this.texture;
+        }
+        double cellWidth = snappingWidth * scaleX;
+        double cellHeight = snappingHeight * scaleY;
+        if (!isWholePixel(cellWidth) || !isWholePixel(cellHeight) || cellWidth < 1 || cellHeight < 1
+                || cellWidth > MAX_TEXTURE_SIZE || cellHeight > MAX_TEXTURE_SIZE)
+        {
+            return null;
+        }
+        int width = (int) Math.round(cellWidth);
+        int height = (int) Math.round(cellHeight);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D textureGraphics = image.createGraphics();
+        try
+        {
+            textureGraphics.setColor(Color.WHITE);
+            textureGraphics.fillRect(0, 0, width, height);
+            textureGraphics.setColor(gridColor);
+            textureGraphics.setStroke(stroke);
+            // Lines around the second cell are drawn as they are on the editor, shifted by one cell. Lines on the
+            // first row and column may fall on other pixels, so they are drawn apart.
+            textureGraphics.translate(-width, -height);
+            textureGraphics.scale(scaleX, scaleY);
+            for (int i = 1; i <= 3; i++)
+            {
+                textureGraphics.draw(new Line2D.Double(i * snappingWidth, 0, i * snappingWidth, 4 * snappingHeight));
+                textureGraphics.draw(new Line2D.Double(0, i * snappingHeight, 4 * snappingWidth, i * snappingHeight));
+            }
+        }
+        finally
+        {
+            textureGraphics.dispose();
+        }
+        this.texture = new TexturePaint(image, new Rectangle(0, 0, width, height));
+        this.textureSnappingWidth = snappingWidth;
+        this.textureSnappingHeight = snappingHeight;
+        this.textureScaleX = scaleX;
+        this.textureScaleY = scaleY;
+        this.textureColor = gridColor;
+        this.textureStroke = stroke;
+        return this.texture;
     }
-    
-    
+
+    private static boolean isWholePixel(double value)
+    {
+        return Math.abs(value - Math.rint(value)) < 1e-6;
+    }
+
 
     @Override
     public IGridSticker getGridSticker()
@@ -216,4 +346,16 @@ public class PlainGrid implements IGrid
     private boolean isVisible = true;
     public static final int DEFAULT_GRID_SIZE = 10;
     private IEditorPart editorPart;
+
+    /** One grid cell, drawn for the grid size, zoom factor, color and stroke below */
+    private TexturePaint texture;
+    private double textureSnappingWidth;
+    private double textureSnappingHeight;
+    private double textureScaleX;
+    private double textureScaleY;
+    private Color textureColor;
+    private Stroke textureStroke;
+
+    /** Largest grid cell drawn from a texture, in pixels */
+    private static final int MAX_TEXTURE_SIZE = 512;
 }
@@ -160,6 +160,12 @@ public abstract class AbstractEditorPartBehavior implements IEditorPartBehavior
         // TODO Auto-generated method stub
         
     }
+
+    @Override
+    public void onSelectionChanged()
+    {
+        // nothing to do by default
+    }
     
     @Override
     public void beforeChangingTransitionPointsOnEdge(IEdge edge)
@@ -5,6 +5,7 @@ import java.awt.Graphics2D;
 import java.awt.event.MouseEvent;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -81,7 +82,6 @@ public class AddEdgeBehavior extends AbstractEditorPartBehavior
     @Override
     public void onMouseReleased(MouseEvent event)
     {
-        this.editorPart.getSwingComponent().invalidate();
         if (this.isLinkBySeparatedClicks)
         {
             return;
@@ -99,10 +99,25 @@ public class AddEdgeBehavior extends AbstractEditorPartBehavior
         Point2D mousePoint = new Point2D.Double(event.getX() / zoom, event.getY() / zoom);
         Point2D snappedMousePoint = grid.snap(mousePoint);
         if (!snappedMousePoint.equals(lastMousePoint)) {
-            this.editorPart.getSwingComponent().invalidate();
-            this.editorPart.getSwingComponent().repaint();
+            Rectangle2D previousArea = getLinkArea();
+            this.lastMousePoint = snappedMousePoint;
+            this.editorPart.repaintDrawingArea(previousArea);
+            this.editorPart.repaintDrawingArea(getLinkArea());
         }
-        this.lastMousePoint = snappedMousePoint;
+    }
+
+    /**
+     * @return area covered by the link drawn while linking, on graph
+     */
+    private Rectangle2D getLinkArea()
+    {
+        Rectangle2D area = new Rectangle2D.Double(this.firstMousePoint.getX(), this.firstMousePoint.getY(), 0, 0);
+        for (Point2D aTransitionPoint : this.transitionPoints)
+        {
+            area.add(aTransitionPoint);
+        }
+        area.add(this.lastMousePoint);
+        return new Rectangle2D.Double(area.getX() - 1, area.getY() - 1, area.getWidth() + 2, area.getHeight() + 2);
     }
 
     private boolean isConditionOK(MouseEvent event)
@@ -170,7 +185,9 @@ public class AddEdgeBehavior extends AbstractEditorPartBehavior
         if (added)
         {
             this.selectionHandler.setSelectedElement(this.newEdge);
+            this.behaviorManager.fireOnSelectionChanged();
         }
+        this.editorPart.repaintDrawingArea(getLinkArea());
         this.isLinkingInProgress = false;
         this.isLinkBySeparatedClicks = false;
         this.transitionPoints.clear();
@@ -180,6 +197,10 @@ public class AddEdgeBehavior extends AbstractEditorPartBehavior
 
     private void cancel()
     {
+        if (this.isLinkingInProgress)
+        {
+            this.editorPart.repaintDrawingArea(getLinkArea());
+        }
         this.isLinkingInProgress = false;
         this.isLinkBySeparatedClicks = false;
         this.transitionPoints.clear();
@@ -67,14 +67,13 @@ public class AddNodeBehavior extends AbstractEditorPartBehavior implements IGrap
         if (added)
         {
             selectionHandler.setSelectedElement(newNode);
+            behaviorManager.fireOnSelectionChanged();
             
             if (!KeyModifierUtil.isCtrl(event)) {
 	            selectionHandler.setSelectedTool(GraphTool.SELECTION_TOOL);
 	            graphToolsBar.setSelectedTool(GraphTool.SELECTION_TOOL);
 	            graphToolsBar.getAWTComponent().invalidate();
             }
-            
-            editorPart.getSwingComponent().invalidate();
         }
     }
 
@@ -138,7 +137,7 @@ public class AddNodeBehavior extends AbstractEditorPartBehavior implements IGrap
 	        if (added)
 	        {
 	            selectionHandler.setSelectedElement(this.draggedNode);
-	            editorPart.getSwingComponent().invalidate();
+	            behaviorManager.fireOnSelectionChanged();
 	        }
 		}
 	}
@@ -162,8 +161,7 @@ public class AddNodeBehavior extends AbstractEditorPartBehavior implements IGrap
             
 			if (outEvent.getX() < 0 || outEvent.getY() < 0) {
 				this.graph.removeNode(this.draggedNode);
-				editorPart.getSwingComponent().invalidate();
-				editorPart.getSwingComponent().repaint();
+				behaviorManager.fireOnSelectionChanged();
 			} else {
 				moveDraggedNode(outEvent);
 			}
@@ -180,8 +178,8 @@ public class AddNodeBehavior extends AbstractEditorPartBehavior implements IGrap
 		
         draggedNode.setLocation(newNodeLocation);
         
+        // The node is repainted as a graph change, its grabbers where they were and where they are
         selectionHandler.setSelectedElement(this.draggedNode);
-        editorPart.getSwingComponent().invalidate();
-        editorPart.getSwingComponent().repaint();
+        behaviorManager.fireOnSelectionChanged();
 	}
 }
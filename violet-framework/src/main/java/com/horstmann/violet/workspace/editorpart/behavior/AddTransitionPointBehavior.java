@@ -96,7 +96,6 @@ public class AddTransitionPointBehavior extends AbstractEditorPartBehavior
             startUndoRedoCapture();
             addNewTransitionPoint(event);
             stopUndoRedoCapture();
-            this.editorPart.getSwingComponent().invalidate();
             this.isTransitionPointAdded = true;
         }
     }
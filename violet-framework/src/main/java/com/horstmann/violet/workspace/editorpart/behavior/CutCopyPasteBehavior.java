@@ -82,8 +82,6 @@ public class CutCopyPasteBehavior extends AbstractEditorPartBehavior
     {
         copy();
         editorPart.removeSelected();
-        editorPart.getSwingComponent().invalidate();
-        editorPart.getSwingComponent().repaint();
     }
 
     /**
@@ -192,9 +190,6 @@ public class CutCopyPasteBehavior extends AbstractEditorPartBehavior
 
             addUndoRedoSupport(nodesReallyPasted, edgesReallyPasted);
             selectPastedElements(nodesReallyPasted, edgesReallyPasted);
-
-            editorPart.getSwingComponent().invalidate();
-            editorPart.getSwingComponent().repaint();
         }
         catch (IOException e)
         {
@@ -280,6 +275,7 @@ public class CutCopyPasteBehavior extends AbstractEditorPartBehavior
         {
             selectionHandler.addSelectedElement(anEdge);
         }
+        this.editorPart.getBehaviorManager().fireOnSelectionChanged();
     }
 
     /**
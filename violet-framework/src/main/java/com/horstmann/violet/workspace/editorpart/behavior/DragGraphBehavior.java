@@ -128,9 +128,8 @@ public class DragGraphBehavior extends AbstractEditorPartBehavior
             JScrollBar verticalScrollBar = scrollableEditorPart.getVerticalScrollBar();
             JScrollBar horizontalScrollBar = scrollableEditorPart.getHorizontalScrollBar();
             horizontalScrollBar.setValue(this.initialHorizontalScrollBarValue - (int) dx);
+            // The viewport repaints the area scrolled into view
             verticalScrollBar.setValue(this.initialVerticalScrollBarValue - (int) dy);
-            this.editorPart.getSwingComponent().invalidate();
-            this.editorPart.getSwingComponent().repaint();
         }
         this.lastMousePoint = snappedMousePoint;
     }
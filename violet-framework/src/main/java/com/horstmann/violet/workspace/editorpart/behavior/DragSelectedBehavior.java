@@ -87,6 +87,12 @@ public class DragSelectedBehavior extends AbstractEditorPartBehavior {
         dx = Math.max(dx, -bounds.getX());
         dy = Math.max(dy, -bounds.getY());
 
+        if (!isDragging) {
+            // The rest of the graph is kept still while the selection is dragged over it
+            editorPart.beginDragging(selectedNodes);
+            isDragging = true;
+        }
+
         boolean isAtLeastOneNodeMoved = false;
         IGridSticker gridSticker = graph.getGridSticker();
         for (INode n : selectedNodes) {
@@ -119,19 +125,19 @@ public class DragSelectedBehavior extends AbstractEditorPartBehavior {
             }
         }
 
-        // Save mouse location for next dragging sequence
+        // Save mouse location for next dragging sequence. Moved nodes notify the graph, which repaints the areas they
+        // leave and reach.
         if (isAtLeastOneNodeMoved) {
-            Point2D snappedMousePoint = gridSticker.snap(mousePoint);
-            if (!snappedMousePoint.equals(lastMousePoint)) {
-                editorPart.getSwingComponent().invalidate();
-                editorPart.getSwingComponent().repaint();
-            }
-            lastMousePoint = snappedMousePoint;
+            lastMousePoint = gridSticker.snap(mousePoint);
         }
     }
 
     @Override
     public void onMouseReleased(MouseEvent event) {
+        if (this.isDragging) {
+            this.editorPart.endDragging();
+            this.isDragging = false;
+        }
         this.editorPart.getSwingComponent().setCursor(this.initialCursor);
         this.lastMousePoint = null;
         this.isReadyForDragging = false;
@@ -177,6 +183,8 @@ public class DragSelectedBehavior extends AbstractEditorPartBehavior {
 
     private boolean isReadyForDragging = false;
 
+    private boolean isDragging = false;
+
     private Cursor initialCursor = null;
 
     private Cursor dragCursor = new Cursor(Cursor.HAND_CURSOR);
@@ -2,7 +2,9 @@ package com.horstmann.violet.workspace.editorpart.behavior;
 
 import java.awt.event.MouseEvent;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 
+import com.horstmann.violet.framework.util.GrabberUtils;
 import com.horstmann.violet.product.diagram.abstracts.IGridSticker;
 import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
 import com.horstmann.violet.workspace.editorpart.IEditorPart;
@@ -58,17 +60,17 @@ public class DragTransitionPointBehavior extends AbstractEditorPartBehavior
         {
             return;
         }
-        if (this.edgeTransitionPointToDrag == null)
+        if (this.transitionPointToDragIndex < 0)
         {
             // As transition points are added on dragging action, we look for transition points from
             // on dragging event too
-            this.edgeTransitionPointToDrag = getEdgeTransitionPointToDrag();
-            if (this.edgeTransitionPointToDrag != null)
+            this.transitionPointToDragIndex = getTransitionPointToDragIndex();
+            if (this.transitionPointToDragIndex >= 0)
             {
                 startUndoRedoCapture();
             }
         }
-        if (this.edgeTransitionPointToDrag == null)
+        if (this.transitionPointToDragIndex < 0)
         {
             return;
         }
@@ -79,22 +81,19 @@ public class DragTransitionPointBehavior extends AbstractEditorPartBehavior
         IGridSticker gridSticker = editorPart.getGraph().getGridSticker();
 
         // Drag specific transition point on selected edge
-        if (this.edgeTransitionPointToDrag != null)
-        {
-            double newTransitionPointLocationX = this.edgeTransitionPointToDrag.getX() + dx;
-            double newTransitionPointLocationY = this.edgeTransitionPointToDrag.getY() + dy;
-            Point2D newTransitionPoint = new Point2D.Double(newTransitionPointLocationX, newTransitionPointLocationY);
-            newTransitionPoint = gridSticker.snap(newTransitionPoint);
-            this.edgeTransitionPointToDrag.setLocation(newTransitionPoint.getX(), newTransitionPoint.getY());
-            // Save mouse location for next dragging sequence
-            Point2D snappedMousePoint = gridSticker.snap(mousePoint);
-            if (!snappedMousePoint.equals(lastMousePoint)) {
-                editorPart.getSwingComponent().invalidate();
-                editorPart.getSwingComponent().repaint();
-            }
-            lastMousePoint = snappedMousePoint;
-            return;
-        }
+        IEdge edge = getSelectedEdge();
+        Point2D transitionPoint = edge.getTransitionPoints()[this.transitionPointToDragIndex];
+        Point2D newTransitionPoint = new Point2D.Double(transitionPoint.getX() + dx, transitionPoint.getY() + dy);
+        newTransitionPoint = gridSticker.snap(newTransitionPoint);
+        if (!newTransitionPoint.equals(transitionPoint))
+        {
+            // Notifies the graph, which repaints the old and the new route of the edge. Grabbers stick out of it.
+            this.editorPart.repaintDrawingArea(getGrabberArea(edge));
+            edge.moveTransitionPoint(this.transitionPointToDragIndex, newTransitionPoint);
+            this.editorPart.repaintDrawingArea(getGrabberArea(edge));
+        }
+        // Save mouse location for next dragging sequence
+        lastMousePoint = gridSticker.snap(mousePoint);
     }
 
     @Override
@@ -105,7 +104,7 @@ public class DragTransitionPointBehavior extends AbstractEditorPartBehavior
         lastMousePoint = null;
         isReadyForDragging = false;
         selectedEdge = null;
-        edgeTransitionPointToDrag = null;
+        transitionPointToDragIndex = -1;
     }
 
     private IEdge getSelectedEdge()
@@ -120,6 +119,21 @@ public class DragTransitionPointBehavior extends AbstractEditorPartBehavior
         return this.selectedEdge;
     }
 
+    /**
+     * @return area covered by the given edge and its grabbers, on graph
+     */
+    private Rectangle2D getGrabberArea(IEdge edge)
+    {
+        Rectangle2D area = edge.getBounds();
+        for (Point2D aTransitionPoint : edge.getTransitionPoints())
+        {
+            area.add(aTransitionPoint);
+        }
+        double margin = GrabberUtils.GRABBER_WIDTH;
+        return new Rectangle2D.Double(area.getX() - margin, area.getY() - margin, area.getWidth() + 2 * margin,
+                area.getHeight() + 2 * margin);
+    }
+
     private boolean isPrerequisitesOK()
     {
         if (getSelectedEdge() == null)
@@ -151,25 +165,29 @@ public class DragTransitionPointBehavior extends AbstractEditorPartBehavior
         return false;
     }
 
-    private Point2D getEdgeTransitionPointToDrag()
+    /**
+     * @return index of the transition point under the mouse, or -1 if there is none
+     */
+    private int getTransitionPointToDragIndex()
     {
         if (getSelectedEdge() == null)
         {
-            return null;
+            return -1;
         }
         if (!getSelectedEdge().isTransitionPointsSupported())
         {
-            return null;
+            return -1;
         }
         final double MAX_DIST = 5;
-        for (Point2D aTransitionPoint : getSelectedEdge().getTransitionPoints())
+        Point2D[] transitionPoints = getSelectedEdge().getTransitionPoints();
+        for (int i = 0; i < transitionPoints.length; i++)
         {
-            if (aTransitionPoint.distance(this.firstMousePoint) <= MAX_DIST)
+            if (transitionPoints[i].distance(this.firstMousePoint) <= MAX_DIST)
             {
-                return aTransitionPoint;
+                return i;
             }
         }
-        return null;
+        return -1;
     }
 
     private void startUndoRedoCapture()
@@ -204,7 +222,8 @@ public class DragTransitionPointBehavior extends AbstractEditorPartBehavior
 
     private boolean isReadyForDragging = false;
 
-    private Point2D edgeTransitionPointToDrag = null;
+    /** Index of the dragged transition point, or -1 if none is dragged */
+    private int transitionPointToDragIndex = -1;
 
     private IEdge selectedEdge = null;
 }
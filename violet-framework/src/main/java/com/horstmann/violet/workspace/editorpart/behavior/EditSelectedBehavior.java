@@ -17,6 +17,7 @@ import com.horstmann.violet.framework.injection.resources.annotation.ResourceBun
 import com.horstmann.violet.product.diagram.propertyeditor.CustomPropertyEditor;
 import com.horstmann.violet.product.diagram.propertyeditor.ICustomPropertyEditor;
 import com.horstmann.violet.product.diagram.abstracts.IGraph;
+import com.horstmann.violet.product.diagram.abstracts.IIdentifiable;
 import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
 import com.horstmann.violet.product.diagram.abstracts.node.INode;
 import com.horstmann.violet.product.diagram.common.node.DiagramLinkNode;
@@ -104,6 +105,10 @@ public class EditSelectedBehavior extends AbstractEditorPartBehavior
                     // }
                 }
 
+                if (edited instanceof IIdentifiable)
+                {
+                    ((IIdentifiable) edited).incrementRevision();
+                }
                 if (edited instanceof INode)
                 {
                     behaviorManager.fireWhileEditingNode((INode) edited, event);
@@ -112,7 +117,6 @@ public class EditSelectedBehavior extends AbstractEditorPartBehavior
                 {
                     behaviorManager.fireWhileEditingEdge((IEdge) edited, event);
                 }
-                editorPart.getSwingComponent().invalidate();
             }
         });
 
@@ -139,7 +143,6 @@ public class EditSelectedBehavior extends AbstractEditorPartBehavior
                         {
                             behaviorManager.fireAfterEditingEdge((IEdge) edited);
                         }
-                        editorPart.getSwingComponent().invalidate();
                     }
                 }
             }
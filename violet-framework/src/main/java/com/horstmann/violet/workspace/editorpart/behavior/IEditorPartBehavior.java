@@ -31,6 +31,11 @@ public interface IEditorPartBehavior
     public void onNodeSelected(INode node);
 
     public void onEdgeSelected(IEdge edge);
+
+    /**
+     * Called once after a batch of elements has been selected or deselected
+     */
+    public void onSelectionChanged();
     
     public void beforeEditingNode(INode node);
 
@@ -64,8 +64,13 @@ public class ResizeNodeBehavior extends AbstractEditorPartBehavior {
             editorPart.getSwingComponent().setCursor(Cursor.getPredefinedCursor(Cursor.SE_RESIZE_CURSOR));
             IResizableNode resizableNode = (IResizableNode) node0;
             Dimension snapped = snap(evaluate(event.getPoint(), bounds));
-            resizableNode.setWantedSize(new Rectangle2D.Double(bounds.getX(), bounds.getY(), snapped.getWidth(), snapped.getHeight()));
-            editorPart.getSwingComponent().repaint();
+            if (!snapped.equals(wantedSize)) {
+                wantedSize = snapped;
+                resizableNode.setWantedSize(new Rectangle2D.Double(bounds.getX(), bounds.getY(), snapped.getWidth(), snapped.getHeight()));
+                // The old and the new area of the node are repainted as a graph change, then those of its grabbers
+                node0.incrementRevision();
+                editorPart.getBehaviorManager().fireOnSelectionChanged();
+            }
         } else {
             isResizing = false;
         }
@@ -74,6 +79,7 @@ public class ResizeNodeBehavior extends AbstractEditorPartBehavior {
     @Override
     public void onMouseReleased(MouseEvent event) {
         isResizing = false;
+        wantedSize = null;
         isReadyForResizing = false;
         DragSelectedBehavior.unlock();
     }
@@ -129,6 +135,9 @@ public class ResizeNodeBehavior extends AbstractEditorPartBehavior {
 
     private boolean isResizing = false;
 
+    /** Size last given to the resized node */
+    private Dimension wantedSize = null;
+
     private double zoom = 1;
 
 }
\ No newline at end of file
@@ -1,6 +1,6 @@
 package com.horstmann.violet.workspace.editorpart.behavior;
 
-import java.util.ArrayList;
+import java.util.Collection;
 
 import com.horstmann.violet.product.diagram.abstracts.IGraph;
 import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
@@ -30,24 +30,12 @@ public class SelectAllBehavior extends AbstractEditorPartBehavior
      */
     public void selectAllGraphElements()
     {
-        ArrayList<Object> selectables = new ArrayList<Object>();
-        selectables.addAll(graph.getAllNodes());
-        selectables.addAll(graph.getAllEdges());
-        if (selectables.size() == 0) return;
+        Collection<INode> nodes = graph.getAllNodes();
+        Collection<IEdge> edges = graph.getAllEdges();
+        if (nodes.isEmpty() && edges.isEmpty()) return;
         selectionHandler.clearSelection();
-        for (Object toSelect : selectables) {
-        	if (toSelect instanceof INode)
-            {
-                selectionHandler.addSelectedElement((INode) toSelect);
-                behaviorManager.fireOnNodeSelected((INode) toSelect);
-            }
-            if (toSelect instanceof IEdge)
-            {
-                selectionHandler.addSelectedElement((IEdge) toSelect);
-                behaviorManager.fireOnEdgeSelected((IEdge) toSelect);
-            }
-        }
-        editorPart.getSwingComponent().invalidate();
+        selectionHandler.addSelectedElements(nodes, edges);
+        behaviorManager.fireOnSelectionChanged();
         graphToolsBar.reset();
     }
 
@@ -89,7 +89,6 @@ public class SelectByClickBehavior extends AbstractEditorPartBehavior
         } else {
             processSelectionInConflictWithDraggingEvents(true);
         }
-        this.editorPart.getSwingComponent().invalidate();
     }
 
     private void resetEventAttributes()
@@ -114,6 +113,7 @@ public class SelectByClickBehavior extends AbstractEditorPartBehavior
     private void resetSelectedElements()
     {
         this.selectionHandler.clearSelection();
+        this.behaviorManager.fireOnSelectionChanged();
     }
     
     
@@ -144,6 +144,8 @@ public class SelectByClickBehavior extends AbstractEditorPartBehavior
         		this.selectionHandler.addSelectedElement(edge);
         		if (this.selectionHandler.getSelectedEdges().size() == 1) {
         			this.behaviorManager.fireOnEdgeSelected(edge);
+        		} else {
+        			this.behaviorManager.fireOnSelectionChanged();
         		}
         	}
         	return;
@@ -164,6 +166,8 @@ public class SelectByClickBehavior extends AbstractEditorPartBehavior
                 this.selectionHandler.addSelectedElement(node);
                 if (this.selectionHandler.getSelectedNodes().size() == 1) {
                 	this.behaviorManager.fireOnNodeSelected(node);
+                } else {
+                    this.behaviorManager.fireOnSelectionChanged();
                 }
             }
             return;
@@ -199,6 +203,7 @@ public class SelectByClickBehavior extends AbstractEditorPartBehavior
                 this.selectionHandler.removeElementFromSelection(this.unprocessedEdge);
             }
         }
+        this.behaviorManager.fireOnSelectionChanged();
     }
     
     @Override
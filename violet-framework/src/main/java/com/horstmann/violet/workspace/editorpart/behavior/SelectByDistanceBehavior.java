@@ -106,7 +106,6 @@ public class SelectByDistanceBehavior extends AbstractEditorPartBehavior
             selectionHandler.setSelectedElement((IEdge) toSelect);
             behaviorManager.fireOnEdgeSelected((IEdge) toSelect);
         }
-        this.editorPart.getSwingComponent().invalidate();
     }
     
     private IEditorPart editorPart;
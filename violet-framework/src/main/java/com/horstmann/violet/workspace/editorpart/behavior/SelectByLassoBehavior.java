@@ -5,14 +5,19 @@ import java.awt.Graphics2D;
 import java.awt.event.MouseEvent;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
+import com.horstmann.violet.framework.util.GrabberUtils;
 import com.horstmann.violet.framework.util.KeyModifierUtil;
 import com.horstmann.violet.product.diagram.abstracts.IGraph;
 import com.horstmann.violet.product.diagram.abstracts.IGridSticker;
 import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
 import com.horstmann.violet.product.diagram.abstracts.node.INode;
 import com.horstmann.violet.workspace.editorpart.IEditorPart;
+import com.horstmann.violet.workspace.editorpart.IEditorPartBehaviorManager;
 import com.horstmann.violet.workspace.editorpart.IEditorPartSelectionHandler;
 import com.horstmann.violet.workspace.sidebar.graphtools.GraphTool;
 import com.horstmann.violet.workspace.sidebar.graphtools.IGraphToolsBar;
@@ -25,6 +30,7 @@ public class SelectByLassoBehavior extends AbstractEditorPartBehavior
         this.editorPart = editorPart;
         this.graph = editorPart.getGraph();
         this.selectionHandler = editorPart.getSelectionHandler();
+        this.behaviorManager = editorPart.getBehaviorManager();
         this.graphToolsBar = graphToolsBar;
     }
 
@@ -47,6 +53,9 @@ public class SelectByLassoBehavior extends AbstractEditorPartBehavior
             resetSelectedElements();
             mouseDownPoint = mousePoint;
             lastMousePoint = mousePoint;
+            lastLasso = null;
+            nodesInLasso.clear();
+            edgesInLasso.clear();
         }
     }
 
@@ -68,53 +77,64 @@ public class SelectByLassoBehavior extends AbstractEditorPartBehavior
         if (snappedMousePoint.equals(lastMousePoint)) {
             return;
         }
-        double x1 = mouseDownPoint.getX();
-        double y1 = mouseDownPoint.getY();
-        double x2 = mousePoint.getX();
-        double y2 = mousePoint.getY();
-        Rectangle2D.Double lasso = new Rectangle2D.Double(Math.min(x1, x2), Math.min(y1, y2), Math.abs(x1 - x2), Math.abs(y1 - y2));
-        Iterator<INode> iterOnNodes = graph.getAllNodes().iterator();
-        while (iterOnNodes.hasNext())
+        Rectangle2D lasso = getLasso(mousePoint);
+        Set<INode> enclosedNodes = new LinkedHashSet<INode>();
+        for (INode n : graph.findNodes(lasso))
         {
-            INode n = (INode) iterOnNodes.next();
+            Point2D locationOnGraph = n.getLocationOnGraph();
             Rectangle2D bounds = n.getBounds();
-            if (!lasso.contains(bounds))
-            {
-                selectionHandler.removeElementFromSelection(n);
-            }
-            else if (lasso.contains(bounds))
+            if (lasso.contains(locationOnGraph.getX(), locationOnGraph.getY(), bounds.getWidth(), bounds.getHeight()))
             {
-                selectionHandler.addSelectedElement(n);
+                enclosedNodes.add(n);
             }
         }
-        Iterator<IEdge> iterOnEdges = graph.getAllEdges().iterator();
-        while (iterOnEdges.hasNext())
+        Set<IEdge> enclosedEdges = new LinkedHashSet<IEdge>();
+        for (IEdge e : graph.findEdges(lasso))
         {
-            IEdge e = (IEdge) iterOnEdges.next();
-            Rectangle2D bounds = e.getBounds();
-            if (!lasso.contains(bounds))
-            {
-                selectionHandler.removeElementFromSelection(e);
-            }
-            else if (lasso.contains(bounds))
+            if (lasso.contains(e.getBounds()))
             {
-                selectionHandler.addSelectedElement(e);
+                enclosedEdges.add(e);
             }
         }
-        if (!snappedMousePoint.equals(lastMousePoint)) {
-            this.editorPart.getSwingComponent().invalidate();
-            this.editorPart.getSwingComponent().repaint();
+        boolean selectionChanged = selectionHandler.removeElementsFromSelection(
+                getLeftElements(this.nodesInLasso, enclosedNodes), getLeftElements(this.edgesInLasso, enclosedEdges));
+        selectionChanged |= selectionHandler.addSelectedElements(getLeftElements(enclosedNodes, this.nodesInLasso),
+                getLeftElements(enclosedEdges, this.edgesInLasso));
+        if (selectionChanged)
+        {
+            this.behaviorManager.fireOnSelectionChanged();
+        }
+        this.nodesInLasso = enclosedNodes;
+        this.edgesInLasso = enclosedEdges;
+
+        Rectangle2D dirtyArea = getLasso(snappedMousePoint);
+        dirtyArea.add(lasso);
+        if (null != this.lastLasso)
+        {
+            dirtyArea.add(this.lastLasso);
         }
+        if (null != this.lastMousePoint)
+        {
+            dirtyArea.add(getLasso(this.lastMousePoint));
+        }
+        repaint(dirtyArea);
+        this.lastLasso = lasso;
         this.lastMousePoint = snappedMousePoint;
     }
 
     @Override
     public void onMouseReleased(MouseEvent event)
     {
+        if (null != mouseDownPoint && null != lastMousePoint)
+        {
+            // Erases the lasso
+            repaint(getLasso(lastMousePoint));
+        }
         mouseDownPoint = null;
         lastMousePoint = null;
-        this.editorPart.getSwingComponent().invalidate();
-        this.editorPart.getSwingComponent().repaint();
+        lastLasso = null;
+        nodesInLasso.clear();
+        edgesInLasso.clear();
     }
 
     private boolean isMouseOnNodeOrEdge(Point2D mouseLocation)
@@ -131,6 +151,42 @@ public class SelectByLassoBehavior extends AbstractEditorPartBehavior
     private void resetSelectedElements()
     {
         this.selectionHandler.clearSelection();
+        this.behaviorManager.fireOnSelectionChanged();
+    }
+
+    private Rectangle2D getLasso(Point2D mousePoint)
+    {
+        double x1 = mouseDownPoint.getX();
+        double y1 = mouseDownPoint.getY();
+        double x2 = mousePoint.getX();
+        double y2 = mousePoint.getY();
+        return new Rectangle2D.Double(Math.min(x1, x2), Math.min(y1, y2), Math.abs(x1 - x2), Math.abs(y1 - y2));
+    }
+
+    /**
+     * @return elements of the first set which are not in the second one
+     */
+    private <T> List<T> getLeftElements(Set<T> elements, Set<T> remainingElements)
+    {
+        List<T> result = new ArrayList<T>();
+        for (T anElement : elements)
+        {
+            if (!remainingElements.contains(anElement))
+            {
+                result.add(anElement);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Repaints the given area on graph, widened to cover the lasso border
+     */
+    private void repaint(Rectangle2D areaOnGraph)
+    {
+        double margin = GrabberUtils.GRABBER_WIDTH + 1;
+        this.editorPart.repaintDrawingArea(new Rectangle2D.Double(areaOnGraph.getX() - margin, areaOnGraph.getY() - margin,
+                areaOnGraph.getWidth() + 2 * margin, areaOnGraph.getHeight() + 2 * margin));
     }
 
 
@@ -143,12 +199,7 @@ public class SelectByLassoBehavior extends AbstractEditorPartBehavior
         }
         Color oldColor = g2.getColor();
         g2.setColor(PURPLE);
-        double x1 = mouseDownPoint.getX();
-        double y1 = mouseDownPoint.getY();
-        double x2 = lastMousePoint.getX();
-        double y2 = lastMousePoint.getY();
-        Rectangle2D.Double lasso = new Rectangle2D.Double(Math.min(x1, x2), Math.min(y1, y2), Math.abs(x1 - x2), Math.abs(y1 - y2));
-        g2.draw(lasso);
+        g2.draw(getLasso(lastMousePoint));
         g2.setColor(oldColor);
     }
 
@@ -158,10 +209,18 @@ public class SelectByLassoBehavior extends AbstractEditorPartBehavior
 
     private Point2D lastMousePoint = null;
 
+    private Rectangle2D lastLasso = null;
+
+    private Set<INode> nodesInLasso = new LinkedHashSet<INode>();
+
+    private Set<IEdge> edgesInLasso = new LinkedHashSet<IEdge>();
+
     private IGraph graph;
 
     private IEditorPartSelectionHandler selectionHandler;
 
+    private IEditorPartBehaviorManager behaviorManager;
+
     private IEditorPart editorPart;
     
     private IGraphToolsBar graphToolsBar;
@@ -4,18 +4,26 @@ import java.awt.Graphics2D;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseWheelEvent;
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 import java.beans.PropertyChangeEvent;
 
+import com.horstmann.violet.framework.util.GrabberUtils;
+import com.horstmann.violet.product.diagram.abstracts.AbstractGraph;
 import com.horstmann.violet.product.diagram.abstracts.IColorable;
+import com.horstmann.violet.product.diagram.abstracts.IGraph;
 import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
 import com.horstmann.violet.product.diagram.abstracts.node.INode;
 import com.horstmann.violet.workspace.editorpart.IEditorPart;
+import com.horstmann.violet.workspace.editorpart.IEditorPartSelectionHandler;
 import com.horstmann.violet.workspace.sidebar.graphtools.GraphTool;
 
 public class SwingRepaintingBehavior implements IEditorPartBehavior
 {
 
     private IEditorPart editorPart;
+
+    /** Area covered by the selection grabbers when last repainted, on graph */
+    private Rectangle2D lastSelectionArea;
     
     
     public SwingRepaintingBehavior(IEditorPart editorPart)
@@ -23,6 +31,63 @@ public class SwingRepaintingBehavior implements IEditorPartBehavior
         this.editorPart = editorPart;
     }
 
+    /**
+     * Repaints the grabbers of the previous selection and those of the current one
+     */
+    private void repaintSelection()
+    {
+        Rectangle2D selectionArea = getSelectionArea();
+        if (null != this.lastSelectionArea)
+        {
+            this.editorPart.repaintDrawingArea(this.lastSelectionArea);
+        }
+        if (null != selectionArea)
+        {
+            this.editorPart.repaintDrawingArea(selectionArea);
+        }
+        this.lastSelectionArea = selectionArea;
+    }
+
+    /**
+     * @return area covered by the selected elements and their grabbers, or null if nothing is selected
+     */
+    private Rectangle2D getSelectionArea()
+    {
+        IEditorPartSelectionHandler selectionHandler = this.editorPart.getSelectionHandler();
+        Rectangle2D area = null;
+        for (INode aNode : selectionHandler.getSelectedNodes())
+        {
+            Point2D location = aNode.getLocationOnGraph();
+            Rectangle2D bounds = aNode.getBounds();
+            area = add(area, new Rectangle2D.Double(location.getX(), location.getY(), bounds.getWidth(), bounds.getHeight()));
+        }
+        for (IEdge anEdge : selectionHandler.getSelectedEdges())
+        {
+            area = add(area, anEdge.getBounds());
+            for (Point2D aTransitionPoint : anEdge.getTransitionPoints())
+            {
+                area.add(aTransitionPoint);
+            }
+        }
+        if (null == area)
+        {
+            return null;
+        }
+        double margin = GrabberUtils.GRABBER_WIDTH;
+        return new Rectangle2D.Double(area.getX() - margin, area.getY() - margin, area.getWidth() + 2 * margin,
+                area.getHeight() + 2 * margin);
+    }
+
+    private Rectangle2D add(Rectangle2D area, Rectangle2D bounds)
+    {
+        if (null == area)
+        {
+            return bounds;
+        }
+        area.add(bounds);
+        return area;
+    }
+
     @Override
     public void onToolSelected(GraphTool selectedTool)
     {
@@ -38,7 +103,7 @@ public class SwingRepaintingBehavior implements IEditorPartBehavior
     @Override
     public void onMouseClicked(MouseEvent event)
     {
-        this.editorPart.getSwingComponent().repaint();
+        repaintSelection();
     }
 
     @Override
@@ -98,36 +163,32 @@ public class SwingRepaintingBehavior implements IEditorPartBehavior
     @Override
     public void afterRemovingSelectedElements()
     {
-        this.editorPart.getSwingComponent().invalidate();
-        this.editorPart.getSwingComponent().repaint();
+        repaintSelection();
     }
 
     @Override
     public void afterEditingNode(INode node)
     {
-        this.editorPart.getSwingComponent().invalidate();
-        this.editorPart.getSwingComponent().repaint();
+        // Edits reach the editor part as graph changes, only grabbers may have to follow the new size
+        repaintSelection();
     }
 
     @Override
     public void afterEditingEdge(IEdge edge)
     {
-        this.editorPart.getSwingComponent().invalidate();
-        this.editorPart.getSwingComponent().repaint();
+        repaintSelection();
     }
 
     @Override
     public void afterAddingNodeAtPoint(INode node, Point2D location)
     {
-        this.editorPart.getSwingComponent().invalidate();
-        this.editorPart.getSwingComponent().repaint();
+        repaintSelection();
     }
 
     @Override
     public void afterAddingEdgeAtPoints(IEdge edge, Point2D startPoint, Point2D endPoint)
     {
-        this.editorPart.getSwingComponent().invalidate();
-        this.editorPart.getSwingComponent().repaint();
+        repaintSelection();
     }
     
     @Override
@@ -140,29 +201,31 @@ public class SwingRepaintingBehavior implements IEditorPartBehavior
     @Override
     public void onEdgeSelected(IEdge edge)
     {
-        this.editorPart.getSwingComponent().invalidate();
-        this.editorPart.getSwingComponent().repaint();
+        repaintSelection();
     }
 
     @Override
     public void onNodeSelected(INode node)
     {
-        this.editorPart.getSwingComponent().invalidate();
-        this.editorPart.getSwingComponent().repaint();
+        repaintSelection();
+    }
+
+    @Override
+    public void onSelectionChanged()
+    {
+        repaintSelection();
     }
 
     @Override
     public void whileEditingEdge(IEdge edge, PropertyChangeEvent event)
     {
-        this.editorPart.getSwingComponent().invalidate();
-        this.editorPart.getSwingComponent().repaint();
+        repaintSelection();
     }
 
     @Override
     public void whileEditingNode(INode node, PropertyChangeEvent event)
     {
-        this.editorPart.getSwingComponent().invalidate();
-        this.editorPart.getSwingComponent().repaint();
+        repaintSelection();
     }
     
     @Override
@@ -174,8 +237,7 @@ public class SwingRepaintingBehavior implements IEditorPartBehavior
     @Override
     public void afterChangingTransitionPointsOnEdge(IEdge edge)
     {
-        // Nothing to do
-        
+        repaintSelection();
     }
     
     @Override
@@ -188,8 +250,20 @@ public class SwingRepaintingBehavior implements IEditorPartBehavior
     @Override
     public void afterChangingColorOnElement(IColorable element)
     {
-        // TODO Auto-generated method stub
-        
+        // Colors are not graph changes, so only the area of the colored element is painted again
+        IGraph graph = this.editorPart.getGraph();
+        if (!(graph instanceof AbstractGraph))
+        {
+            this.editorPart.invalidateDrawingArea(null);
+        }
+        else if (element instanceof INode)
+        {
+            this.editorPart.invalidateDrawingArea(((AbstractGraph) graph).getDrawingBounds((INode) element));
+        }
+        else if (element instanceof IEdge)
+        {
+            this.editorPart.invalidateDrawingArea(((AbstractGraph) graph).getDrawingBounds((IEdge) element));
+        }
     }
 
    
@@ -227,8 +227,7 @@ public class UndoRedoCompoundBehavior extends AbstractEditorPartBehavior
         if (undoManager.canUndo())
         {
             undoManager.undo();
-            editorPart.getSwingComponent().invalidate();
-            editorPart.getSwingComponent().repaint();
+            editorPart.invalidateDrawingArea(null);
         }
     }
 
@@ -240,8 +239,7 @@ public class UndoRedoCompoundBehavior extends AbstractEditorPartBehavior
         if (undoManager.canRedo())
         {
             undoManager.redo();
-            editorPart.getSwingComponent().invalidate();
-            editorPart.getSwingComponent().repaint();
+            editorPart.invalidateDrawingArea(null);
         }
     }
 
@@ -0,0 +1,146 @@
+/*
+ Violet - A program for editing UML diagrams.
+
+ Copyright (C) 2007 Cay S. Horstmann (http://horstmann.com)
+ Alexandre de Pellegrin (http://alexdp.free.fr);
+
+ This program is free software; you can redistribute it and/or modify
+ it under the terms of the GNU General Public License as published by
+ the Free Software Foundation; either version 2 of the License, or
+ (at your option) any later version.
+
+ This program is distributed in the hope that it will be useful,
+ but WITHOUT ANY WARRANTY; without even the implied warranty of
+ MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ GNU General Public License for more details.
+
+ You should have received a copy of the GNU General Public License
+ along with this program; if not, write to the Free Software
+ Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+ */
+
+package com.horstmann.violet.workspace.sidebar;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.horstmann.violet.product.diagram.abstracts.IColorable;
+import com.horstmann.violet.product.diagram.abstracts.IGraph;
+import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
+import com.horstmann.violet.product.diagram.abstracts.node.INode;
+
+/**
+ * Outline of a graph taken at a given time, for the navigator. Nodes are kept as filled rectangles and edges as
+ * polylines, which is all that can be told apart at thumbnail size. Once taken, the outline no longer reads the graph,
+ * so it can be drawn from any thread while the graph is being edited.
+ */
+public class GraphThumbnail
+{
+    /**
+     * Takes the outline of a graph. It must be called from the thread editing the graph.
+     *
+     * @param graph graph to outline
+     */
+    public GraphThumbnail(IGraph graph)
+    {
+        List<INode> sortedNodes = new ArrayList<INode>(graph.getAllNodes());
+        // Same order as the graph draws them
+        Collections.sort(sortedNodes, new Comparator<INode>()
+        {
+            @Override
+            public int compare(INode n1, INode n2)
+            {
+                int z1 = n1.getZ();
+                int z2 = n2.getZ();
+                return z1 < z2 ? -1 : (z1 == z2 ? 0 : 1);
+            }
+        });
+        for (INode aNode : sortedNodes)
+        {
+            Point2D location = aNode.getLocationOnGraph();
+            Rectangle2D bounds = aNode.getBounds();
+            Color backgroundColor = Color.WHITE;
+            Color borderColor = Color.BLACK;
+            if (aNode instanceof IColorable)
+            {
+                backgroundColor = ((IColorable) aNode).getBackgroundColor();
+                borderColor = ((IColorable) aNode).getBorderColor();
+            }
+            this.nodes.add(new NodeOutline(new Rectangle2D.Double(location.getX(), location.getY(), bounds.getWidth(),
+                    bounds.getHeight()), backgroundColor, borderColor));
+        }
+        for (IEdge anEdge : graph.getAllEdges())
+        {
+            Line2D connectionPoints = anEdge.getConnectionPoints();
+            GeneralPath path = new GeneralPath();
+            path.moveTo((float) connectionPoints.getX1(), (float) connectionPoints.getY1());
+            for (Point2D aTransitionPoint : anEdge.getTransitionPoints())
+            {
+                path.lineTo((float) aTransitionPoint.getX(), (float) aTransitionPoint.getY());
+            }
+            path.lineTo((float) connectionPoints.getX2(), (float) connectionPoints.getY2());
+            this.edges.add(path);
+        }
+    }
+
+    /**
+     * Draws the outline
+     *
+     * @param graphics graphics context
+     * @param scale thumbnail size over graph size
+     */
+    public void draw(Graphics2D graphics, double scale)
+    {
+        graphics.scale(scale, scale);
+        // Lines stay one pixel wide whatever the scale, or they would fade away
+        graphics.setStroke(new BasicStroke((float) (1 / scale)));
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        for (NodeOutline aNode : this.nodes)
+        {
+            if (null != aNode.backgroundColor)
+            {
+                graphics.setColor(aNode.backgroundColor);
+                graphics.fill(aNode.bounds);
+            }
+            if (null != aNode.borderColor)
+            {
+                graphics.setColor(aNode.borderColor);
+                graphics.draw(aNode.bounds);
+            }
+        }
+        graphics.setColor(Color.BLACK);
+        for (GeneralPath anEdge : this.edges)
+        {
+            graphics.draw(anEdge);
+        }
+    }
+
+    private static class NodeOutline
+    {
+        NodeOutline(Rectangle2D bounds, Color backgroundColor, Color borderColor)
+        {
+            this.bounds = bounds;
+            this.backgroundColor = backgroundColor;
+            this.borderColor = borderColor;
+        }
+
+        private final Rectangle2D bounds;
+        private final Color backgroundColor;
+        private final Color borderColor;
+    }
+
+    /** Nodes, in drawing order */
+    private final List<NodeOutline> nodes = new ArrayList<NodeOutline>();
+
+    private final List<GeneralPath> edges = new ArrayList<GeneralPath>();
+}
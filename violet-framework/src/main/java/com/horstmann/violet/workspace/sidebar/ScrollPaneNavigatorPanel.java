@@ -32,23 +32,54 @@ import java.awt.Insets;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.Robot;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.event.MouseEvent;
 import java.awt.geom.Area;
 import java.awt.image.BufferedImage;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import javax.swing.BorderFactory;
 import javax.swing.JComponent;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.event.MouseInputAdapter;
 import javax.swing.event.MouseInputListener;
 
+import com.horstmann.violet.product.diagram.abstracts.GraphChange;
+import com.horstmann.violet.product.diagram.abstracts.IGraphListener;
+import com.horstmann.violet.workspace.editorpart.IEditorPart;
+
+/**
+ * Thumbnail of a scroll pane view, with a rectangle to drag around to scroll the view.
+ * 
+ * The thumbnail is updated at most every {@link #MIN_UPDATE_INTERVAL} milliseconds. When the view is an editor part,
+ * it is drawn on a background thread from an outline of the graph, and updated when the graph or the zoom changes. Other views
+ * are painted on the event dispatch thread. Both images are reused as long as the thumbnail keeps its size.
+ */
 public class ScrollPaneNavigatorPanel extends JPanel
 {
     private static final double MAX_SIZE = 200;
+    private static final int MIN_UPDATE_INTERVAL = 250;
+    private static final ExecutorService THUMBNAIL_EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory()
+    {
+        public Thread newThread(Runnable r)
+        {
+            Thread thread = new Thread(r, "Navigator thumbnail");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    });
     private JScrollPane theScrollPane;
     private JComponent theComponent;
     private BufferedImage theImage;
@@ -56,6 +87,16 @@ public class ScrollPaneNavigatorPanel extends JPanel
     private Rectangle theRectangle;
     private Point theStartPoint;
     private double theScale;
+    /** Image the next thumbnail is drawn on, swapped with theImage once done */
+    private BufferedImage theBackImage;
+    private Timer theUpdateTimer;
+    private long theLastUpdateTime;
+    /** True while a thumbnail is being drawn on the background thread */
+    private boolean theUpdateRunning;
+    /** True if the view changed while a thumbnail was being drawn */
+    private boolean theUpdateRequested;
+    private IGraphListener theGraphListener;
+    private PropertyChangeListener theZoomListener;
 
     public ScrollPaneNavigatorPanel(JScrollPane aScrollPane)
     {
@@ -110,6 +151,50 @@ public class ScrollPaneNavigatorPanel extends JPanel
                 display();
             }
         });
+
+        theUpdateTimer = new Timer(MIN_UPDATE_INTERVAL, new ActionListener()
+        {
+            public void actionPerformed(ActionEvent e)
+            {
+                updateThumbnail();
+            }
+        });
+        theUpdateTimer.setRepeats(false);
+        theGraphListener = new IGraphListener()
+        {
+            public void onGraphChanged(List<GraphChange> changes)
+            {
+                requestThumbnail();
+            }
+        };
+        theZoomListener = new PropertyChangeListener()
+        {
+            public void propertyChange(PropertyChangeEvent evt)
+            {
+                requestThumbnail();
+            }
+        };
+    }
+
+    public void addNotify()
+    {
+        super.addNotify();
+        if (theComponent instanceof IEditorPart)
+        {
+            ((IEditorPart) theComponent).getGraph().addGraphListener(theGraphListener);
+            theComponent.addPropertyChangeListener(IEditorPart.ZOOM_PROPERTY, theZoomListener);
+        }
+    }
+
+    public void removeNotify()
+    {
+        if (theComponent instanceof IEditorPart)
+        {
+            ((IEditorPart) theComponent).getGraph().removeGraphListener(theGraphListener);
+            theComponent.removePropertyChangeListener(IEditorPart.ZOOM_PROPERTY, theZoomListener);
+        }
+        theUpdateTimer.stop();
+        super.removeNotify();
     }
 
     protected void paintComponent(Graphics g1D)
@@ -147,13 +232,7 @@ public class ScrollPaneNavigatorPanel extends JPanel
         double scaleX = MAX_SIZE / compWidth;
         double scaleY = MAX_SIZE / compHeight;
         theScale = Math.min(scaleX, scaleY);
-
-        theImage = new BufferedImage((int) (theComponent.getWidth() * theScale), (int) (theComponent.getHeight() * theScale),
-                BufferedImage.TYPE_BYTE_BINARY);
-
-        Graphics2D g = theImage.createGraphics();
-        g.scale(theScale, theScale);
-        theComponent.paint(g);
+        requestThumbnail();
 
         theStartRectangle = theComponent.getVisibleRect();
         Insets insets = getInsets();
@@ -183,6 +262,106 @@ public class ScrollPaneNavigatorPanel extends JPanel
         }
     }
 
+    /**
+     * Schedules an update of the thumbnail, no sooner than MIN_UPDATE_INTERVAL after the last one
+     */
+    private void requestThumbnail()
+    {
+        if (theUpdateRunning)
+        {
+            theUpdateRequested = true;
+            return;
+        }
+        if (theUpdateTimer.isRunning())
+        {
+            return;
+        }
+        long elapsedTime = System.currentTimeMillis() - theLastUpdateTime;
+        theUpdateTimer.setInitialDelay((int) Math.max(0, Math.min(MIN_UPDATE_INTERVAL, MIN_UPDATE_INTERVAL - elapsedTime)));
+        theUpdateTimer.start();
+    }
+
+    private void updateThumbnail()
+    {
+        final int width = (int) (theComponent.getWidth() * theScale);
+        final int height = (int) (theComponent.getHeight() * theScale);
+        if (width <= 0 || height <= 0) return;
+        if (theBackImage == null || theBackImage.getWidth() != width || theBackImage.getHeight() != height)
+        {
+            theBackImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+        final BufferedImage image = theBackImage;
+        final double scale = theScale;
+        if (!(theComponent instanceof IEditorPart))
+        {
+            Graphics2D g = image.createGraphics();
+            g.scale(scale, scale);
+            theComponent.paint(g);
+            g.dispose();
+            showThumbnail();
+            return;
+        }
+        IEditorPart editorPart = (IEditorPart) theComponent;
+        final GraphThumbnail thumbnail = new GraphThumbnail(editorPart.getGraph());
+        // The graph is drawn zoomed in the component
+        final double graphScale = scale * editorPart.getZoomFactor();
+        theUpdateRunning = true;
+        THUMBNAIL_EXECUTOR.execute(new Runnable()
+        {
+            public void run()
+            {
+                boolean drawn = false;
+                try
+                {
+                    Graphics2D g = image.createGraphics();
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, width, height);
+                    thumbnail.draw(g, graphScale);
+                    g.dispose();
+                    drawn = true;
+                }
+                finally
+                {
+                    // A failed drawing must not block the next updates
+                    final boolean shown = drawn;
+                    SwingUtilities.invokeLater(new Runnable()
+                    {
+                        public void run()
+                        {
+                            theUpdateRunning = false;
+                            if (shown)
+                            {
+                                showThumbnail();
+                            }
+                            if (theUpdateRequested)
+                            {
+                                theUpdateRequested = false;
+                                requestThumbnail();
+                            }
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    /**
+     * Shows the image just drawn and keeps the previous one to draw the next thumbnail on
+     */
+    private void showThumbnail()
+    {
+        BufferedImage previousImage = theImage;
+        theImage = theBackImage;
+        theBackImage = previousImage;
+        theLastUpdateTime = System.currentTimeMillis();
+        if (previousImage == null || previousImage.getWidth() != theImage.getWidth()
+                || previousImage.getHeight() != theImage.getHeight())
+        {
+            revalidate();
+        }
+        repaint();
+    }
+
     private void moveRectangle(int aDeltaX, int aDeltaY)
     {
         if (theStartRectangle == null) return;
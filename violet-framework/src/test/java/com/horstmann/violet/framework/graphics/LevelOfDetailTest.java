@@ -0,0 +1,40 @@
+package com.horstmann.violet.framework.graphics;
+
+import org.junit.Test;
+
+import java.awt.Graphics2D;
+
+import static org.junit.Assert.*;
+
+public class LevelOfDetailTest
+{
+    private Graphics2D createGraphics(double zoom, LevelOfDetail levelOfDetail)
+    {
+        return TestingGraphics.create(zoom, LevelOfDetail.KEY_LEVEL_OF_DETAIL, levelOfDetail);
+    }
+
+    @Test
+    public void testThresholds() throws Exception {
+        LevelOfDetail levelOfDetail = new LevelOfDetail(0.5, 0.25);
+        assertFalse(levelOfDetail.isNodeSimplified(0.5));
+        assertTrue(levelOfDetail.isNodeSimplified(0.4));
+        assertFalse(levelOfDetail.isEdgeSimplified(0.4));
+        assertTrue(levelOfDetail.isEdgeSimplified(0.2));
+    }
+
+    @Test
+    public void testZoomIsReadFromGraphics() throws Exception {
+        LevelOfDetail levelOfDetail = new LevelOfDetail(0.5, 0.25);
+        assertFalse(LevelOfDetail.simplifiesNodes(createGraphics(1, levelOfDetail)));
+        assertTrue(LevelOfDetail.simplifiesNodes(createGraphics(0.4, levelOfDetail)));
+        assertFalse(LevelOfDetail.simplifiesEdges(createGraphics(0.4, levelOfDetail)));
+        assertTrue(LevelOfDetail.simplifiesEdges(createGraphics(0.2, levelOfDetail)));
+    }
+
+    @Test
+    public void testEverythingIsDrawnWithoutHint() throws Exception {
+        assertFalse(LevelOfDetail.simplifiesNodes(createGraphics(0.1, null)));
+        assertFalse(LevelOfDetail.simplifiesEdges(createGraphics(0.1, null)));
+        assertFalse(LevelOfDetail.simplifiesNodes(createGraphics(0.1, LevelOfDetail.FULL)));
+    }
+}
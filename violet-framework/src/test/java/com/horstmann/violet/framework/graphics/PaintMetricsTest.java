@@ -0,0 +1,52 @@
+package com.horstmann.violet.framework.graphics;
+
+import org.junit.Test;
+
+import java.awt.Graphics2D;
+
+import static org.junit.Assert.*;
+
+public class PaintMetricsTest
+{
+    @Test
+    public void testNothingIsRecordedUntilEnabled() throws Exception {
+        PaintMetrics metrics = new PaintMetrics();
+        Graphics2D graphics = TestingGraphics.create(1, PaintMetrics.KEY_PAINT_METRICS, metrics);
+        metrics.beginFrame();
+        assertFalse(metrics.isRecording());
+        assertNull(PaintMetrics.getRecording(graphics));
+        metrics.endFrame();
+        assertNull(metrics.getLastFrame());
+        assertEquals(0, metrics.getFrameCount());
+    }
+
+    @Test
+    public void testPhasesAndElementsAreRecorded() throws Exception {
+        PaintMetrics metrics = new PaintMetrics();
+        Graphics2D graphics = TestingGraphics.create(1, PaintMetrics.KEY_PAINT_METRICS, metrics);
+        metrics.setEnabled(true);
+        metrics.beginFrame();
+        assertSame(metrics, PaintMetrics.getRecording(graphics));
+        long startTime = System.nanoTime();
+        metrics.addTime(PaintMetrics.GRID, startTime);
+        metrics.addNodeTime(String.class, startTime);
+        metrics.addNodeTime(String.class, startTime);
+        metrics.addEdgeTime(Integer.class, startTime);
+        metrics.endFrame();
+
+        PaintMetrics.Frame frame = metrics.getLastFrame();
+        assertEquals(1, metrics.getFrameCount());
+        assertEquals(3, frame.getElementCount());
+        assertEquals(1, frame.getPhase(PaintMetrics.GRID).getCount());
+        assertEquals(2, frame.getPhase("node String").getCount());
+        assertEquals(1, frame.getPhase("edge Integer").getCount());
+        assertTrue(frame.getDuration() >= frame.getPhase(PaintMetrics.GRID).getDuration());
+        assertNull(PaintMetrics.getRecording(graphics));
+
+        metrics.beginFrame();
+        metrics.addEdgeTime(Integer.class, System.nanoTime());
+        metrics.endFrame();
+        assertNull(metrics.getLastFrame().getPhase("node String"));
+        assertEquals(1, metrics.getLastFrame().getElementCount());
+    }
+}
@@ -0,0 +1,30 @@
+package com.horstmann.violet.framework.graphics;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Creates graphics contexts drawing into small images, as editor parts give them to graph elements
+ */
+public class TestingGraphics
+{
+    /**
+     * @param zoom scale of the graphics context
+     * @param hintKey rendering hint to set
+     * @param hintValue value of the hint, or null to leave it unset
+     * @return graphics context drawing into a 200x200 image
+     */
+    public static Graphics2D create(double zoom, RenderingHints.Key hintKey, Object hintValue)
+    {
+        Graphics2D graphics = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB).createGraphics();
+        graphics.scale(zoom, zoom);
+        if (null != hintValue)
+        {
+            graphics.setRenderingHint(hintKey, hintValue);
+        }
+        return graphics;
+    }
+
+    private static final int SIZE = 200;
+}
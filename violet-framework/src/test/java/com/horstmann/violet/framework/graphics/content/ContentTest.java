@@ -138,4 +138,47 @@ public class ContentTest
         assertEquals(0, testingRefreshContent.refreshUpCount);
         assertEquals(0, testingRefreshContent.refreshDownCount);
     }
+
+    @Test
+    public void testRefreshInLayoutTransaction() throws Exception {
+        TestingRefreshContent testingRefreshContent = new TestingRefreshContent();
+        Content first = new TestContent();
+        Content second = new TestContent();
+        testingRefreshContent.setAsParent(first);
+        testingRefreshContent.setAsParent(second);
+
+        Content.beginLayout();
+        try
+        {
+            first.setMinWidth(10);
+            second.setMinWidth(20);
+            first.refresh();
+            assertEquals(0, testingRefreshContent.refreshUpCount);
+        }
+        finally
+        {
+            Content.endLayout();
+        }
+        assertEquals(1, testingRefreshContent.refreshUpCount);
+        assertEquals(0, testingRefreshContent.refreshDownCount);
+    }
+
+    @Test
+    public void testSizeReadInLayoutTransaction() throws Exception {
+        VerticalLayout layout = new VerticalLayout();
+        Content content = new TestContent();
+
+        Content.beginLayout();
+        try
+        {
+            layout.add(content);
+            content.setMinWidth(30);
+            assertEquals(30, layout.getWidth(), 0.01);
+        }
+        finally
+        {
+            Content.endLayout();
+        }
+        assertEquals(30, layout.getWidth(), 0.01);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.horstmann.violet.product.diagram.abstracts;
+
+import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
+import com.horstmann.violet.product.diagram.abstracts.node.INode;
+import com.horstmann.violet.product.diagram.common.edge.NoteEdge;
+import com.horstmann.violet.product.diagram.common.node.NoteNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GraphListenerTest
+{
+    private AbstractGraph graph;
+
+    private List<List<GraphChange.Type>> batches;
+
+    @Before
+    public void setUp() throws Exception {
+        graph = new AbstractGraph()
+        {
+            @Override
+            public List<INode> getNodePrototypes()
+            {
+                return new ArrayList<INode>();
+            }
+
+            @Override
+            public List<IEdge> getEdgePrototypes()
+            {
+                return new ArrayList<IEdge>();
+            }
+        };
+        batches = new ArrayList<List<GraphChange.Type>>();
+        graph.addGraphListener(new IGraphListener()
+        {
+            @Override
+            public void onGraphChanged(List<GraphChange> changes)
+            {
+                List<GraphChange.Type> types = new ArrayList<GraphChange.Type>();
+                for (GraphChange change : changes)
+                {
+                    types.add(change.getType());
+                }
+                batches.add(types);
+            }
+        });
+    }
+
+    @Test
+    public void testNestedTransactionsDeliverOneBatch() throws Exception {
+        graph.beginTransaction();
+        graph.beginTransaction();
+        graph.addNode(new NoteNode(), new Point2D.Double(0, 0));
+        graph.endTransaction();
+        graph.addNode(new NoteNode(), new Point2D.Double(200, 0));
+        assertTrue(batches.isEmpty());
+        graph.endTransaction();
+
+        assertEquals(1, batches.size());
+        int addedNodes = 0;
+        for (GraphChange.Type type : batches.get(0))
+        {
+            if (GraphChange.Type.NODE_ADDED == type)
+            {
+                ++addedNodes;
+            }
+        }
+        assertEquals(2, addedNodes);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEndWithoutBegin() throws Exception {
+        graph.endTransaction();
+    }
+
+    @Test
+    public void testChangeTypes() throws Exception {
+        NoteNode first = new NoteNode();
+        NoteNode second = new NoteNode();
+        graph.addNode(first, new Point2D.Double(0, 0));
+        assertTrue(batches.get(0).contains(GraphChange.Type.NODE_ADDED));
+        graph.addNode(second, new Point2D.Double(300, 0));
+
+        batches.clear();
+        graph.connect(new NoteEdge(), first, new Point2D.Double(5, 5), second, new Point2D.Double(5, 5), null);
+        assertEquals(1, batches.size());
+        assertTrue(batches.get(0).contains(GraphChange.Type.EDGE_CONNECTED));
+
+        // Edges are routed when their nodes move, not when they are drawn
+        batches.clear();
+        second.setLocation(new Point2D.Double(300, 300));
+        assertTrue(batches.get(0).contains(GraphChange.Type.EDGE_REROUTED));
+        List<GraphChange.Type> allTypes = new ArrayList<GraphChange.Type>();
+        for (List<GraphChange.Type> batch : batches)
+        {
+            allTypes.addAll(batch);
+        }
+        assertTrue(allTypes.contains(GraphChange.Type.NODE_MOVED));
+
+        batches.clear();
+        graph.removeNode(second);
+        assertEquals(1, batches.size());
+        assertTrue(batches.get(0).contains(GraphChange.Type.NODE_REMOVED));
+        assertTrue(batches.get(0).contains(GraphChange.Type.EDGE_REMOVED));
+        assertEquals(0, graph.getAllEdges().size());
+    }
+
+    @Test
+    public void testMovingTransitionPoint() throws Exception {
+        NoteNode first = new NoteNode();
+        NoteNode second = new NoteNode();
+        graph.addNode(first, new Point2D.Double(0, 0));
+        graph.addNode(second, new Point2D.Double(300, 0));
+        NoteEdge edge = new NoteEdge();
+        graph.connect(edge, first, new Point2D.Double(5, 5), second, new Point2D.Double(5, 5), null);
+        edge.setTransitionPoints(new Point2D[] { new Point2D.Double(150, 100) });
+
+        batches.clear();
+        edge.moveTransitionPoint(0, new Point2D.Double(150, 100));
+        assertTrue(batches.isEmpty());
+        edge.moveTransitionPoint(0, new Point2D.Double(150, 200));
+        assertTrue(batches.get(0).contains(GraphChange.Type.EDGE_REROUTED));
+        assertEquals(new Point2D.Double(150, 200), edge.getTransitionPoints()[0]);
+    }
+}
@@ -0,0 +1,85 @@
+package com.horstmann.violet.product.diagram.abstracts;
+
+import org.junit.Test;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SpatialIndexTest
+{
+    @Test
+    public void testGetCandidatesForPoint() throws Exception {
+        SpatialIndex<String> index = new SpatialIndex<String>(10);
+        index.add("a", new Rectangle2D.Double(0, 0, 50, 50));
+        index.add("b", new Rectangle2D.Double(40, 40, 20, 20));
+        index.add("c", new Rectangle2D.Double(200, 200, 5, 5));
+
+        List<String> candidates = index.getCandidates(new Point2D.Double(45, 45));
+        assertEquals(2, candidates.size());
+        assertEquals("a", candidates.get(0));
+        assertEquals("b", candidates.get(1));
+
+        assertTrue(index.getCandidates(new Point2D.Double(100, 100)).isEmpty());
+        assertEquals("c", index.getCandidates(new Point2D.Double(202, 202)).get(0));
+    }
+
+    @Test
+    public void testOversizedElementKeepsOrder() throws Exception {
+        SpatialIndex<String> index = new SpatialIndex<String>(1);
+        index.add("small", new Rectangle2D.Double(5, 5, 2, 2));
+        index.add("large", new Rectangle2D.Double(0, 0, 1000, 1000));
+        index.add("last", new Rectangle2D.Double(6, 6, 1, 1));
+
+        List<String> candidates = index.getCandidates(new Point2D.Double(6, 6));
+        assertEquals(3, candidates.size());
+        assertEquals("small", candidates.get(0));
+        assertEquals("large", candidates.get(1));
+        assertEquals("last", candidates.get(2));
+    }
+
+    @Test
+    public void testGetCandidatesForArea() throws Exception {
+        SpatialIndex<String> index = new SpatialIndex<String>(10);
+        index.add("a", new Rectangle2D.Double(0, 0, 5, 5));
+        index.add("b", new Rectangle2D.Double(100, 100, 5, 5));
+        index.add("c", new Rectangle2D.Double(-50, -50, 5, 5));
+
+        List<String> candidates = index.getCandidates(new Rectangle2D.Double(-1, -1, 110, 110));
+        assertEquals(2, candidates.size());
+        assertEquals("a", candidates.get(0));
+        assertEquals("b", candidates.get(1));
+
+        assertEquals(3, index.getCandidates(new Rectangle2D.Double(-1000, -1000, 5000, 5000)).size());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void testUpdatedElementKeepsOrder() throws Exception {
+        SpatialIndex<String> index = new SpatialIndex<String>(10);
+        index.add("a", new Rectangle2D.Double(0, 0, 5, 5));
+        index.add("b", new Rectangle2D.Double(100, 100, 5, 5));
+        index.add("c", new Rectangle2D.Double(0, 0, 5, 5));
+
+        assertTrue(index.update("a", new Rectangle2D.Double(100, 100, 5, 5)));
+        assertEquals("c", index.getCandidates(new Point2D.Double(2, 2)).get(0));
+        assertEquals(1, index.getCandidates(new Point2D.Double(2, 2)).size());
+        List<String> candidates = index.getCandidates(new Point2D.Double(102, 102));
+        assertEquals(2, candidates.size());
+        assertEquals("a", candidates.get(0));
+        assertEquals("b", candidates.get(1));
+
+        assertTrue(index.update("b", new Rectangle2D.Double(0, 0, 1000, 1000)));
+        assertEquals(2, index.getCandidates(new Point2D.Double(102, 102)).size());
+        assertEquals("b", index.getCandidates(new Rectangle2D.Double(500, 500, 1, 1)).get(0));
+        assertFalse(index.update("d", new Rectangle2D.Double(0, 0, 5, 5)));
+        assertEquals(3, index.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalCellSize() throws Exception {
+        new SpatialIndex<String>(0);
+    }
+}
@@ -0,0 +1,70 @@
+package com.horstmann.violet.product.diagram.abstracts.node;
+
+import com.horstmann.violet.framework.graphics.TestingGraphics;
+import com.horstmann.violet.framework.graphics.content.Content;
+import com.horstmann.violet.framework.graphics.content.EmptyContent;
+import org.junit.Test;
+
+import java.awt.Graphics2D;
+import java.awt.geom.Point2D;
+
+import static org.junit.Assert.*;
+
+public class NodeSpriteCacheTest
+{
+    private Content createContent(double size)
+    {
+        EmptyContent content = new EmptyContent();
+        content.setMinWidth(size);
+        content.setMinHeight(size);
+        return content;
+    }
+
+    @Test
+    public void testSpriteIsReused() throws Exception {
+        NodeSpriteCache cache = new NodeSpriteCache(100000);
+        Content content = createContent(20);
+        Graphics2D graphics = TestingGraphics.create(1, NodeSpriteCache.KEY_NODE_SPRITES, Boolean.TRUE);
+
+        NodeSpriteCache.Sprite sprite = cache.draw(null, content, graphics, new Point2D.Double(5, 5));
+        assertNotNull(sprite);
+        long pixels = cache.getPixels();
+        assertTrue(0 < pixels);
+        assertSame(sprite, cache.draw(sprite, content, graphics, new Point2D.Double(10, 10)));
+        assertEquals(pixels, cache.getPixels());
+
+        content.setMinWidth(30);
+        assertNotSame(sprite, cache.draw(sprite, content, graphics, new Point2D.Double(10, 10)));
+        assertTrue(pixels < cache.getPixels());
+    }
+
+    @Test
+    public void testVectorDrawingWithoutHint() throws Exception {
+        NodeSpriteCache cache = new NodeSpriteCache(100000);
+        Graphics2D graphics = TestingGraphics.create(1, NodeSpriteCache.KEY_NODE_SPRITES, null);
+        assertNull(cache.draw(null, createContent(20), graphics, new Point2D.Double(0, 0)));
+        assertEquals(0, cache.getPixels());
+    }
+
+    @Test
+    public void testLeastRecentlyDrawnSpritesAreEvicted() throws Exception {
+        // Sprites of 10x10 contents take 14x14 pixels with their margin, so four of them fit
+        NodeSpriteCache cache = new NodeSpriteCache(800);
+        Graphics2D graphics = TestingGraphics.create(1, NodeSpriteCache.KEY_NODE_SPRITES, Boolean.TRUE);
+        Point2D origin = new Point2D.Double(0, 0);
+        Content[] contents = new Content[5];
+        NodeSpriteCache.Sprite[] sprites = new NodeSpriteCache.Sprite[5];
+        for (int i = 0; i < 4; ++i)
+        {
+            contents[i] = createContent(10);
+            sprites[i] = cache.draw(null, contents[i], graphics, origin);
+        }
+        assertSame(sprites[0], cache.draw(sprites[0], contents[0], graphics, origin));
+        contents[4] = createContent(10);
+        cache.draw(null, contents[4], graphics, origin);
+
+        assertTrue(cache.getPixels() <= 800);
+        assertSame(sprites[0], cache.draw(sprites[0], contents[0], graphics, origin));
+        assertNotSame(sprites[1], cache.draw(sprites[1], contents[1], graphics, origin));
+    }
+}
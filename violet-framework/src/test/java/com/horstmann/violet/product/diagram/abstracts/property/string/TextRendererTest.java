@@ -0,0 +1,63 @@
+package com.horstmann.violet.product.diagram.abstracts.property.string;
+
+import com.horstmann.violet.product.diagram.property.text.TextRenderer;
+import org.junit.Test;
+
+import java.awt.Dimension;
+import java.awt.Font;
+
+import static org.junit.Assert.*;
+
+public class TextRendererTest
+{
+    private static final Font FONT = new Font(Font.DIALOG, Font.PLAIN, 12);
+
+    private Dimension getSize(String markup)
+    {
+        return new TextRenderer(markup).getSize(FONT);
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertEquals(new Dimension(0, 0), getSize(""));
+        assertEquals(new Dimension(0, 0), getSize("<font size=+1></font>"));
+    }
+
+    @Test
+    public void testWhitespacesCollapse() throws Exception {
+        assertEquals(getSize("a b"), getSize("  a   b  "));
+        assertEquals(getSize("a b"), getSize("<u></u>a <b></b> b"));
+    }
+
+    @Test
+    public void testEntities() throws Exception {
+        assertEquals(getSize("a > b"), getSize("a &gt; b"));
+        assertEquals(getSize("a/b"), getSize("a&#x2F;b"));
+    }
+
+    @Test
+    public void testLines() throws Exception {
+        Dimension line = getSize("test");
+        Dimension lines = getSize("test<br>test<br>test");
+        assertEquals(line.width, lines.width);
+        assertEquals(3 * line.height, lines.height);
+
+        Dimension centered = getSize("<center>test</center> test");
+        assertEquals(line.width, centered.width);
+        assertEquals(2 * line.height, centered.height);
+    }
+
+    @Test
+    public void testTrailingLineBreakTakesRoom() throws Exception {
+        assertEquals(getSize("test"), getSize("test "));
+        assertEquals(getSize("test t").width - getSize("t").width, getSize("test<br>").width);
+        assertEquals(getSize("test").height, getSize("test<br>").height);
+    }
+
+    @Test
+    public void testStyles() throws Exception {
+        assertTrue(getSize("<font size=+1>test</font>").height > getSize("test").height);
+        assertTrue(getSize("<font size=-2>test</font>").height < getSize("test").height);
+        assertEquals(getSize("test").height, getSize("<u>test</u>").height);
+    }
+}
@@ -0,0 +1,46 @@
+package com.horstmann.violet.product.diagram.abstracts.property.string;
+
+import com.horstmann.violet.product.diagram.property.text.TextRenderer;
+import com.horstmann.violet.product.diagram.property.text.TextSizeCache;
+import org.junit.Test;
+
+import java.awt.Dimension;
+import java.awt.Font;
+
+import static org.junit.Assert.*;
+
+public class TextSizeCacheTest
+{
+    private static final Font FONT = new Font(Font.DIALOG, Font.PLAIN, 12);
+
+    @Test
+    public void testSizesAreMeasuredOnce() throws Exception {
+        TextSizeCache cache = new TextSizeCache(10);
+        Dimension size = cache.getSize("<b>test</b>", FONT);
+        assertEquals(new TextRenderer("<b>test</b>").getSize(FONT), size);
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        size.width = 0;
+        assertEquals(new TextRenderer("<b>test</b>").getSize(FONT), cache.getSize("<b>test</b>", FONT));
+        assertEquals(1, cache.getHits());
+
+        cache.getSize("<b>test</b>", FONT.deriveFont(20f));
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedSizesAreForgotten() throws Exception {
+        TextSizeCache cache = new TextSizeCache(2);
+        cache.getSize("a", FONT);
+        cache.getSize("b", FONT);
+        cache.getSize("a", FONT);
+        cache.getSize("c", FONT);
+        assertEquals(2, cache.size());
+
+        cache.getSize("a", FONT);
+        assertEquals(2, cache.getHits());
+        cache.getSize("b", FONT);
+        assertEquals(4, cache.getMisses());
+    }
+}
@@ -0,0 +1,43 @@
+package com.horstmann.violet.workspace.editorpart;
+
+import org.junit.Test;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EditorPartRepaintSchedulerTest
+{
+    @Test
+    public void testCloseAreasAreMerged() throws Exception {
+        List<Rectangle> areas = EditorPartRepaintScheduler.coalesce(Arrays.asList(
+                new Rectangle(0, 0, 10, 10),
+                new Rectangle(5, 5, 10, 10),
+                new Rectangle(15, 0, 10, 15)));
+        assertEquals(1, areas.size());
+        assertEquals(new Rectangle(0, 0, 25, 15), areas.get(0));
+    }
+
+    @Test
+    public void testDistantAreasAreKeptApart() throws Exception {
+        List<Rectangle> areas = EditorPartRepaintScheduler.coalesce(Arrays.asList(
+                new Rectangle(0, 0, 10, 10),
+                new Rectangle(500, 500, 10, 10)));
+        assertEquals(2, areas.size());
+    }
+
+    @Test
+    public void testManyAreasAreMergedTogether() throws Exception {
+        List<Rectangle> distantAreas = new ArrayList<Rectangle>();
+        for (int i = 0; i < 20; ++i)
+        {
+            distantAreas.add(new Rectangle(i * 100, i * 100, 10, 10));
+        }
+        List<Rectangle> areas = EditorPartRepaintScheduler.coalesce(distantAreas);
+        assertEquals(1, areas.size());
+        assertEquals(new Rectangle(0, 0, 1910, 1910), areas.get(0));
+    }
+}
@@ -0,0 +1,58 @@
+package com.horstmann.violet.workspace.editorpart;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
+import com.horstmann.violet.product.diagram.abstracts.node.INode;
+import com.horstmann.violet.product.diagram.common.node.PointNode;
+
+import static org.junit.Assert.*;
+
+public class EditorPartSelectionHandlerTest
+{
+    @Test
+    public void testReselectedNodeBecomesLast() throws Exception {
+        EditorPartSelectionHandler handler = new EditorPartSelectionHandler();
+        INode a = new PointNode();
+        INode b = new PointNode();
+        handler.addSelectedElement(a);
+        handler.addSelectedElement(b);
+        assertSame(b, handler.getLastSelectedNode());
+
+        handler.addSelectedElement(a);
+        assertSame(a, handler.getLastSelectedNode());
+        assertEquals(Arrays.asList(b, a), handler.getSelectedNodes());
+
+        handler.removeElementFromSelection(a);
+        assertSame(b, handler.getLastSelectedNode());
+        assertFalse(handler.isElementAlreadySelected(a));
+    }
+
+    @Test
+    public void testBulkOperations() throws Exception {
+        EditorPartSelectionHandler handler = new EditorPartSelectionHandler();
+        INode a = new PointNode();
+        INode b = new PointNode();
+        List<IEdge> noEdges = Collections.emptyList();
+
+        assertTrue(handler.addSelectedElements(Arrays.asList(a, b), noEdges));
+        assertFalse(handler.addSelectedElements(Arrays.asList(a), noEdges));
+        assertEquals(2, handler.getSelectedNodes().size());
+        assertTrue(handler.getSelectedNodes().contains(b));
+
+        assertTrue(handler.removeElementsFromSelection(Arrays.asList(a, b), noEdges));
+        assertFalse(handler.removeElementsFromSelection(Arrays.asList(a), noEdges));
+        assertNull(handler.getLastSelectedNode());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSelectedNodesAreUnmodifiable() throws Exception {
+        EditorPartSelectionHandler handler = new EditorPartSelectionHandler();
+        handler.addSelectedElement(new PointNode());
+        handler.getSelectedNodes().clear();
+    }
+}
@@ -36,14 +36,14 @@ public class ActivityNode extends ColorableNode
     {
         super();
         name = new SingleLineText();
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected ActivityNode(ActivityNode node) throws CloneNotSupportedException
     {
         super(node);
         name = node.name.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
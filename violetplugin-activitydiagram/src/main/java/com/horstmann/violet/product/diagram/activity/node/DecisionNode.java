@@ -42,13 +42,13 @@ public class DecisionNode extends ColorableNode
     public DecisionNode()
     {
         super();
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected DecisionNode(DecisionNode node) throws CloneNotSupportedException
     {
         super(node);
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
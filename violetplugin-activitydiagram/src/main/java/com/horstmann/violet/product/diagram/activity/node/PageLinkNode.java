@@ -45,14 +45,14 @@ public class PageLinkNode extends ColorableNode
     {
         super();
         name = new SingleLineText();
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected PageLinkNode(PageLinkNode node) throws CloneNotSupportedException
     {
         super(node);
         name = node.name.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
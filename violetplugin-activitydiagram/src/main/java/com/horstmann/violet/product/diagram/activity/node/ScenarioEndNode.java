@@ -38,13 +38,13 @@ public class ScenarioEndNode extends AbstractNode
     public ScenarioEndNode()
     {
         super();
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected ScenarioEndNode(ScenarioEndNode node) throws CloneNotSupportedException
     {
         super(node);
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
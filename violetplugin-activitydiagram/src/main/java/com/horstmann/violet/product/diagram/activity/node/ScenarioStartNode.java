@@ -38,13 +38,13 @@ public class ScenarioStartNode extends AbstractNode
     public ScenarioStartNode()
     {
         super();
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected ScenarioStartNode(ScenarioStartNode node) throws CloneNotSupportedException
     {
         super(node);
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
@@ -51,14 +51,14 @@ public class SignalReceiptNode extends ColorableNode
         super();
         signal = new SingleLineText();
         signal.setPadding(1,25,1,10);
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected SignalReceiptNode(SignalReceiptNode node) throws CloneNotSupportedException
     {
         super(node);
         signal = node.signal.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
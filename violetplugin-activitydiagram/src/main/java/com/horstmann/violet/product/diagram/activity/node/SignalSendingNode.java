@@ -51,14 +51,14 @@ public class SignalSendingNode extends ColorableNode
         super();
         signal = new SingleLineText();
         signal.setPadding(1,10,1,20);
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected SignalSendingNode(SignalSendingNode node) throws CloneNotSupportedException
     {
         super(node);
         signal = node.signal.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
@@ -50,7 +50,7 @@ public class SynchronizationBarNode extends ColorableNode
         );
         orientation.setSelectedValue(HORIZONTAL);
         selectedStretch = orientation.getSelectedPos();
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected SynchronizationBarNode(SynchronizationBarNode node) throws CloneNotSupportedException
@@ -58,7 +58,7 @@ public class SynchronizationBarNode extends ColorableNode
         super(node);
         orientation = node.orientation.clone();
         selectedStretch = orientation.getSelectedPos();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
@@ -27,14 +27,14 @@ public class WaitTimeActionNode extends ColorableNode
         super();
         name = new SingleLineText();
         name.setPadding(5,5,5,5);
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected WaitTimeActionNode(WaitTimeActionNode node) throws CloneNotSupportedException
     {
         super(node);
         name = node.name.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
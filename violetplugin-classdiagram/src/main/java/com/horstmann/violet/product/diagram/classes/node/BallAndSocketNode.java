@@ -69,7 +69,7 @@ public class BallAndSocketNode extends ColorableNode
         this.selectedType = this.type.getSelectedPos();
         this.selectedOrientation = this.orientation.getSelectedPos();
 
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
@@ -31,7 +31,7 @@ public class ClassNode extends ColorableNode
         name.setAlignment(LineText.CENTER);
         attributes = new MultiLineText(PROPERTY_CONVERTER);
         methods = new MultiLineText(PROPERTY_CONVERTER);
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected ClassNode(ClassNode node) throws CloneNotSupportedException
@@ -40,7 +40,7 @@ public class ClassNode extends ColorableNode
         name = node.name.clone();
         attributes = node.attributes.clone();
         methods = node.methods.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
@@ -116,6 +116,12 @@ public class ClassNode extends ColorableNode
         super.setTextColor(textColor);
     }
 
+    @Override
+    protected boolean isSpriteCacheable()
+    {
+        return true;
+    }
+
     @Override
     public String getToolTip()
     {
@@ -28,7 +28,7 @@ public class EnumNode extends ColorableNode
         super();
         name = new SingleLineText(NAME_CONVERTER);
         attributes = new MultiLineText();
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected EnumNode(EnumNode node) throws CloneNotSupportedException
@@ -36,7 +36,7 @@ public class EnumNode extends ColorableNode
         super(node);
         name = node.name.clone();
         attributes = node.attributes.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
@@ -105,6 +105,12 @@ public class EnumNode extends ColorableNode
         super.setTextColor(textColor);
     }
 
+    @Override
+    protected boolean isSpriteCacheable()
+    {
+        return true;
+    }
+
     @Override
     public String getToolTip()
     {
@@ -30,7 +30,7 @@ public class InterfaceNode extends ColorableNode
 
         name = new SingleLineText(nameConverter);
         methods = new MultiLineText(methodsConverter);
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected InterfaceNode(InterfaceNode node) throws CloneNotSupportedException
@@ -38,7 +38,7 @@ public class InterfaceNode extends ColorableNode
         super(node);
         name = node.name.clone();
         methods = node.methods.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
@@ -103,6 +103,12 @@ public class InterfaceNode extends ColorableNode
         methods.setTextColor(textColor);
     }
 
+    @Override
+    protected boolean isSpriteCacheable()
+    {
+        return true;
+    }
+
     @Override
     public String getToolTip()
     {
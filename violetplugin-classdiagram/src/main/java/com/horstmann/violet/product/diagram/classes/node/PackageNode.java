@@ -27,7 +27,7 @@ public class PackageNode extends ColorableNode
         name = new SingleLineText();
         name.setAlignment(LineText.CENTER);
         context = new MultiLineText();
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected PackageNode(PackageNode node) throws CloneNotSupportedException
@@ -35,7 +35,7 @@ public class PackageNode extends ColorableNode
         super(node);
         name = node.name.clone();
         context = node.context.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
@@ -94,14 +94,14 @@ public class ActorNode extends ColorableNode
         name.setPadding(10,5,5,5);
         name.setAlignment(LineText.CENTER);
 //        name.setText("Actor");
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected ActorNode(ActorNode node) throws CloneNotSupportedException
     {
         super(node);
         name = node.name.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
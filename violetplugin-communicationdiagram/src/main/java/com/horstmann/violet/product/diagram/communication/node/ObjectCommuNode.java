@@ -24,14 +24,14 @@ public class ObjectCommuNode extends ColorableNode
 	{
 		super();
 		name = new SingleLineText(nameConverter);
-		createContentStructure();
+		buildContentStructure();
 	}
 
 	protected ObjectCommuNode(ObjectCommuNode node) throws CloneNotSupportedException
 	{
 		super(node);
 		name = node.name.clone();
-		createContentStructure();
+		buildContentStructure();
 	}
 
 	@Override
@@ -57,7 +57,7 @@ public class FieldNode extends ColorableNode
         value = new SingleLineText();
         value.setAlignment(LineText.LEFT);
         value.setPadding(0, 15, 0, 10);
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected FieldNode(FieldNode node) throws CloneNotSupportedException
@@ -65,7 +65,7 @@ public class FieldNode extends ColorableNode
         super(node);
         name = node.name.clone();
         value = node.value.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
@@ -49,7 +49,7 @@ public class ObjectNode extends ColorableNode
         name.setPadding(5, 10, 5, 2);
         type.setPadding(5, 2, 5, 10);
 
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected ObjectNode(ObjectNode node) throws CloneNotSupportedException
@@ -57,7 +57,7 @@ public class ObjectNode extends ColorableNode
         super(node);
         name = node.name.clone();
         type = node.type.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
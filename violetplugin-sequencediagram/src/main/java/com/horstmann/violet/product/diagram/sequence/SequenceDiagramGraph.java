@@ -25,11 +25,13 @@ import java.awt.geom.Point2D;
 import java.util.*;
 
 import com.horstmann.violet.product.diagram.abstracts.AbstractGraph;
+import com.horstmann.violet.product.diagram.abstracts.GraphChange;
 import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
 import com.horstmann.violet.product.diagram.abstracts.node.INode;
 import com.horstmann.violet.product.diagram.common.edge.NoteEdge;
 import com.horstmann.violet.product.diagram.common.node.NoteNode;
 import com.horstmann.violet.product.diagram.sequence.edge.AsynchronousCallEdge;
+import com.horstmann.violet.product.diagram.sequence.edge.CallEdge;
 import com.horstmann.violet.product.diagram.sequence.edge.SynchronousCallEdge;
 import com.horstmann.violet.product.diagram.sequence.edge.ReturnEdge;
 import com.horstmann.violet.product.diagram.sequence.node.ActivationBarNode;
@@ -51,6 +53,174 @@ public class SequenceDiagramGraph extends AbstractGraph
         return super.addNode(newNode, p);
     }
 
+    @Override
+    public boolean connect(IEdge e, INode start, Point2D startLocation, INode end, Point2D endLocation, Point2D[] transitionPoints)
+    {
+        boolean isConnected = super.connect(e, start, startLocation, end, endLocation, transitionPoints);
+        if (isConnected && null != this.incomingCallEdges && e instanceof CallEdge
+                && !this.incomingCallEdges.containsKey(e.getEndNode()))
+        {
+            this.incomingCallEdges.put(e.getEndNode(), (CallEdge) e);
+        }
+        return isConnected;
+    }
+
+    @Override
+    public void removeEdge(IEdge... edgesToRemove)
+    {
+        super.removeEdge(edgesToRemove);
+        if (null == this.incomingCallEdges)
+        {
+            return;
+        }
+        for (IEdge anEdgeToRemove : edgesToRemove)
+        {
+            INode endingNode = anEdgeToRemove.getEndNode();
+            if (this.incomingCallEdges.get(endingNode) == anEdgeToRemove)
+            {
+                this.incomingCallEdges.remove(endingNode);
+                CallEdge nextCallEdge = findIncomingCallEdge(endingNode);
+                if (null != nextCallEdge)
+                {
+                    this.incomingCallEdges.put(endingNode, nextCallEdge);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lifelines created by a call are drawn at the height of the calling activation bar. They move with the node the
+     * bar belongs to, so they are indexed again and reported as moved too.
+     */
+    @Override
+    public void onNodeGeometryChanged(INode node)
+    {
+        super.onNodeGeometryChanged(node);
+        Set<INode> createdLifelines = Collections.newSetFromMap(new IdentityHashMap<INode, Boolean>());
+        addCreatedLifelines(node, createdLifelines);
+        for (INode aLifeline : createdLifelines)
+        {
+            super.onNodeGeometryChanged(aLifeline);
+            fireNodeChange(GraphChange.Type.NODE_MOVED, aLifeline);
+        }
+    }
+
+    /**
+     * Collects the lifelines placed by a call from the given node or its children, then those placed by calls from
+     * these lifelines
+     */
+    private void addCreatedLifelines(INode node, Set<INode> lifelines)
+    {
+        for (IEdge anEdge : getConnectedEdges(node))
+        {
+            INode endNode = anEdge.getEndNode();
+            if (anEdge instanceof CallEdge && node == anEdge.getStartNode() && endNode instanceof LifelineNode
+                    && getIncomingCallEdge(endNode) == anEdge && lifelines.add(endNode))
+            {
+                addCreatedLifelines(endNode, lifelines);
+            }
+        }
+        for (INode aChild : node.getChildren())
+        {
+            addCreatedLifelines(aChild, lifelines);
+        }
+    }
+
+    /**
+     * Returns the first call edge, in connection order, ending on the given node
+     *
+     * @param node a node of this graph
+     * @return the call edge or null if no call edge ends on this node
+     */
+    public CallEdge getIncomingCallEdge(INode node)
+    {
+        if (null == this.incomingCallEdges)
+        {
+            this.incomingCallEdges = new IdentityHashMap<INode, CallEdge>();
+            for (IEdge edge : getAllEdges())
+            {
+                if (edge instanceof CallEdge && !this.incomingCallEdges.containsKey(edge.getEndNode()))
+                {
+                    this.incomingCallEdges.put(edge.getEndNode(), (CallEdge) edge);
+                }
+            }
+        }
+        return this.incomingCallEdges.get(node);
+    }
+
+    /**
+     * Returns the lowest point reached by lifelines, including their bottom padding.
+     * The value is recomputed only after a geometry change of this graph.
+     *
+     * @return maximal y coordinate over all lifelines or null if there is no lifeline
+     */
+    public Double getLifelinesMaxY()
+    {
+        long revision = getGeometryRevision();
+        if (!this.lifelinesMaxYValid || this.lifelinesMaxYRevision != revision)
+        {
+            Double maxY = null;
+            for (INode node : getAllNodes())
+            {
+                if (node instanceof LifelineNode)
+                {
+                    double lifelineMaxY = ((LifelineNode) node).getMaxYWithPadding();
+                    maxY = null == maxY ? lifelineMaxY : Math.max(maxY, lifelineMaxY);
+                }
+            }
+            Double previousMaxY = this.lifelinesMaxY;
+            this.lifelinesMaxY = maxY;
+            if (null != previousMaxY && !previousMaxY.equals(maxY))
+            {
+                // Every lifeline is drawn down to this ordinate
+                reindexLifelines();
+                fireLifelinesResized();
+            }
+            // Computing locations may move nodes. The value is then only valid for this call.
+            this.lifelinesMaxYValid = revision == getGeometryRevision();
+            this.lifelinesMaxYRevision = revision;
+        }
+        return this.lifelinesMaxY;
+    }
+
+    private void reindexLifelines()
+    {
+        for (INode node : getAllNodes())
+        {
+            if (node instanceof LifelineNode)
+            {
+                reindexNode(node);
+            }
+        }
+    }
+
+    private void fireLifelinesResized()
+    {
+        if (!hasGraphListeners())
+        {
+            return;
+        }
+        for (INode node : getAllNodes())
+        {
+            if (node instanceof LifelineNode)
+            {
+                fireNodeChange(GraphChange.Type.NODE_RESIZED, node);
+            }
+        }
+    }
+
+    private CallEdge findIncomingCallEdge(INode node)
+    {
+        for (IEdge edge : getConnectedEdges(node))
+        {
+            if (edge instanceof CallEdge && node == edge.getEndNode())
+            {
+                return (CallEdge) edge;
+            }
+        }
+        return null;
+    }
+
     public List<INode> getNodePrototypes() {
         return NODE_PROTOTYPES;
     }
@@ -59,6 +229,11 @@ public class SequenceDiagramGraph extends AbstractGraph
         return EDGE_PROTOTYPES;
     }
 
+    private transient Map<INode, CallEdge> incomingCallEdges;
+    private transient Double lifelinesMaxY;
+    private transient boolean lifelinesMaxYValid;
+    private transient long lifelinesMaxYRevision;
+
     private static final List<INode> NODE_PROTOTYPES = new ArrayList<INode>(Arrays.asList(
             new LifelineNode(),
             new ActivationBarNode(),
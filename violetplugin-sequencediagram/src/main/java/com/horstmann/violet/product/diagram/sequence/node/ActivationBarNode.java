@@ -27,7 +27,10 @@ import java.awt.geom.Rectangle2D;
 
 import com.horstmann.violet.framework.graphics.content.*;
 import com.horstmann.violet.framework.graphics.shape.ContentInsideCustomShape;
+import com.horstmann.violet.product.diagram.abstracts.AbstractGraph;
 import com.horstmann.violet.product.diagram.abstracts.Direction;
+import com.horstmann.violet.product.diagram.abstracts.GraphChange;
+import com.horstmann.violet.product.diagram.abstracts.IGraph;
 import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
 import com.horstmann.violet.product.diagram.abstracts.node.AbstractNode;
 import com.horstmann.violet.product.diagram.common.node.ColorableNode;
@@ -55,14 +58,14 @@ public class ActivationBarNode extends ColorableNode
     public ActivationBarNode()
     {
         super();
-        createContentStructure();
+        buildContentStructure();
         refreshPositionAndSize();
     }
 
     protected ActivationBarNode(ActivationBarNode node) throws CloneNotSupportedException
     {
         super(node);
-        createContentStructure();
+        buildContentStructure();
         refreshPositionAndSize();
     }
 
@@ -277,20 +280,145 @@ public class ActivationBarNode extends ColorableNode
 
     private void refreshSize()
     {
+        double oldHeight = activationsGroup.getMinimalBounds().getHeight();
         activationsGroup.setMinHeight((int)Math.max(calculateHeight(), MIN_HEIGHT));
+        if (!isLayingOut && oldHeight != activationsGroup.getMinimalBounds().getHeight())
+        {
+            // Lifelines and edges laid out on this bar depend on its height
+            onGeometryChanged();
+            fireGraphChange(GraphChange.Type.NODE_RESIZED, this);
+        }
     }
 
+    /**
+     * Lays this bar out unless neither this bar nor the nodes it depends on moved or were resized since its last
+     * layout. Bars called by this one are laid out first, so a whole call tree is solved in one depth-first pass and
+     * then served from the cache. Changes elsewhere in the graph only cost a check of these nodes.
+     */
     private void refreshPositionAndSize()
     {
-        refreshPosition();
-        refreshSize();
+        if (isLayingOut)
+        {
+            // Cyclic calls : keep the current geometry
+            return;
+        }
+        IGraph graph = getGraph();
+        long revision = graph instanceof AbstractGraph ? ((AbstractGraph) graph).getGeometryRevision() : 0;
+        if (null != layoutGraph && layoutGraph == graph)
+        {
+            if (layoutRevision == revision)
+            {
+                return;
+            }
+            if (!isDependencyChanged((AbstractGraph) graph))
+            {
+                layoutRevision = ((AbstractGraph) graph).getGeometryRevision();
+                return;
+            }
+        }
+        Point2D oldLocation = new Point2D.Double(getLocation().getX(), getLocation().getY());
+        double oldHeight = activationsGroup.getMinimalBounds().getHeight();
+        isLayingOut = true;
+        try
+        {
+            refreshPosition();
+            refreshSize();
+        }
+        finally
+        {
+            isLayingOut = false;
+        }
+        // Intermediate moves, such as the parent lifeline snapping this bar back, are not reported
+        boolean isMoved = !oldLocation.equals(getLocation());
+        boolean isResized = oldHeight != activationsGroup.getMinimalBounds().getHeight();
+        if (isMoved || isResized)
+        {
+            layoutGraph = null;
+            onGeometryChanged();
+            if (isMoved)
+            {
+                fireGraphChange(GraphChange.Type.NODE_MOVED, this);
+            }
+            if (isResized)
+            {
+                fireGraphChange(GraphChange.Type.NODE_RESIZED, this);
+            }
+        }
+        else if (graph instanceof AbstractGraph && revision == ((AbstractGraph) graph).getGeometryRevision())
+        {
+            layoutGraph = graph;
+            layoutRevision = revision;
+        }
+    }
+
+    /**
+     * Tells whether this bar, the nodes it belongs to, or the nodes at the other end of its edges and the nodes they
+     * belong to moved or were resized since the last layout. Bars called by this one are laid out first.
+     */
+    private boolean isDependencyChanged(AbstractGraph graph)
+    {
+        if (isChangedSinceLayout(graph, this))
+        {
+            return true;
+        }
+        isLayingOut = true;
+        try
+        {
+            for (IEdge edge : getConnectedEdges())
+            {
+                INode otherNode = this == edge.getStartNode() ? edge.getEndNode() : edge.getStartNode();
+                if (this == edge.getStartNode() && otherNode instanceof ActivationBarNode)
+                {
+                    otherNode.getBounds();
+                }
+                if (isChangedSinceLayout(graph, otherNode))
+                {
+                    return true;
+                }
+            }
+        }
+        finally
+        {
+            isLayingOut = false;
+        }
+        return false;
+    }
+
+    private boolean isChangedSinceLayout(AbstractGraph graph, INode node)
+    {
+        for (INode aNode = node; null != aNode; aNode = aNode.getParent())
+        {
+            if (graph.getGeometryRevision(aNode) > layoutRevision)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void onGeometryChanged()
+    {
+        if (!isLayingOut)
+        {
+            super.onGeometryChanged();
+        }
+    }
+
+    @Override
+    protected void fireGraphChange(GraphChange.Type type, INode node)
+    {
+        if (!isLayingOut)
+        {
+            super.fireGraphChange(type, node);
+        }
     }
 
     private Point2D calculateLocation()
     {
         double y = this.getLocation().getY();
 
-        for (IEdge edge : getGraph().getAllEdges())
+        for (IEdge edge : getConnectedEdges())
         {
             if (edge instanceof CallEdge && edge.getEndNode() instanceof ActivationBarNode)
             {
@@ -306,7 +434,7 @@ public class ActivationBarNode extends ColorableNode
     private double calculateHeight()
     {
         double height = 0;
-        for (IEdge edge : getGraph().getAllEdges())
+        for (IEdge edge : getConnectedEdges())
         {
             if (edge instanceof CallEdge)
             {
@@ -408,6 +536,11 @@ public class ActivationBarNode extends ColorableNode
     }
 
     private transient RelativeLayout activationsGroup = null;
+
+    /** Graph and geometry revision of the last layout which changed nothing, or of the last check finding it valid */
+    private transient IGraph layoutGraph;
+    private transient long layoutRevision;
+    private transient boolean isLayingOut;
     
     public static final int WIDTH = 16;
     public static final int MIN_HEIGHT = 15;
@@ -37,7 +37,7 @@ public class CombinedFragmentNode extends AbstractNode implements IResizableNode
         operatorText.setText(operator.getSelectedValue());
         operatorText.setPadding(0,8,0,18);
         frameContent = new MultiLineText();
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected CombinedFragmentNode(CombinedFragmentNode node) throws CloneNotSupportedException
@@ -47,7 +47,7 @@ public class CombinedFragmentNode extends AbstractNode implements IResizableNode
         selectedType = operator.getSelectedPos();
         operatorText = node.operatorText.clone();
         frameContent = node.frameContent.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
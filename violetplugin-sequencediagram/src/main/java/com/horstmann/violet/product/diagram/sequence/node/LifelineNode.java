@@ -29,6 +29,7 @@ import java.util.List;
 
 import com.horstmann.violet.framework.graphics.content.*;
 import com.horstmann.violet.framework.graphics.shape.ContentInsideRectangle;
+import com.horstmann.violet.product.diagram.abstracts.IGraph;
 import com.horstmann.violet.product.diagram.abstracts.node.AbstractNode;
 import com.horstmann.violet.product.diagram.common.node.ColorableNode;
 import com.horstmann.violet.product.diagram.property.ArrowheadChoiceList;
@@ -38,6 +39,7 @@ import com.horstmann.violet.product.diagram.abstracts.edge.IEdge;
 import com.horstmann.violet.product.diagram.abstracts.node.INode;
 import com.horstmann.violet.product.diagram.property.text.SingleLineText;
 import com.horstmann.violet.product.diagram.sequence.SequenceDiagramConstant;
+import com.horstmann.violet.product.diagram.sequence.SequenceDiagramGraph;
 import com.horstmann.violet.product.diagram.sequence.edge.CallEdge;
 
 /**
@@ -59,7 +61,7 @@ public class LifelineNode extends ColorableNode
         type = new SingleLineText(typeConverter);
         type.setPadding(5, 2, 5, 10);
 
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected LifelineNode(LifelineNode node) throws CloneNotSupportedException
@@ -67,7 +69,7 @@ public class LifelineNode extends ColorableNode
         super(node);
         name = node.name.clone();
         type = node.type.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
@@ -237,18 +239,32 @@ public class LifelineNode extends ColorableNode
     public Point2D getLocation()
     {
         double y = 0;
-        for (IEdge edge : getGraph().getAllEdges())
+        IEdge incomingCallEdge = getIncomingCallEdge();
+        if (null != incomingCallEdge)
+        {
+            y = incomingCallEdge.getStartNode().getLocationOnGraph().getY() - TOP_HEIGHT /2 + ActivationBarNode.CALL_Y_GAP / 2;
+        }
+        return new Point2D.Double(super.getLocation().getX(), y);
+    }
+
+    private IEdge getIncomingCallEdge()
+    {
+        IGraph graph = getGraph();
+        if (graph instanceof SequenceDiagramGraph)
+        {
+            return ((SequenceDiagramGraph) graph).getIncomingCallEdge(this);
+        }
+        for (IEdge edge : graph.getAllEdges())
         {
             if (edge instanceof CallEdge)
             {
                 if (this == edge.getEndNode())
                 {
-                    y = edge.getStartNode().getLocationOnGraph().getY() - TOP_HEIGHT /2 + ActivationBarNode.CALL_Y_GAP / 2;
-                    break;
+                    return edge;
                 }
             }
         }
-        return new Point2D.Double(super.getLocation().getX(), y);
+        return null;
     }
 
     public void draw(Graphics2D graphics)
@@ -315,11 +331,25 @@ public class LifelineNode extends ColorableNode
         return getContent().getHeight() + getLocationOnGraph().getY();
     }
 
+    /**
+     * @return the lowest point of this lifeline, including its bottom padding
+     */
+    public double getMaxYWithPadding()
+    {
+        return getMaxY() + ACTIVATIONS_PADDING;
+    }
+
     private double getMaxYOverAllLifeLineNodes()
     {
         double maxY = getMaxY();
 
-        for (INode node : getGraph().getAllNodes())
+        IGraph graph = getGraph();
+        if (graph instanceof SequenceDiagramGraph)
+        {
+            Double lifelinesMaxY = ((SequenceDiagramGraph) graph).getLifelinesMaxY();
+            return null == lifelinesMaxY ? maxY : Math.max(maxY, lifelinesMaxY);
+        }
+        for (INode node : graph.getAllNodes())
         {
             if (node instanceof LifelineNode)
             {
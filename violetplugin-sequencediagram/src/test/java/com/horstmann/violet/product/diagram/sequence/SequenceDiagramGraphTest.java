@@ -0,0 +1,86 @@
+package com.horstmann.violet.product.diagram.sequence;
+
+import com.horstmann.violet.product.diagram.abstracts.GraphChange;
+import com.horstmann.violet.product.diagram.abstracts.IGraphListener;
+import com.horstmann.violet.product.diagram.abstracts.node.INode;
+import com.horstmann.violet.product.diagram.sequence.edge.SynchronousCallEdge;
+import com.horstmann.violet.product.diagram.sequence.node.ActivationBarNode;
+import com.horstmann.violet.product.diagram.sequence.node.LifelineNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SequenceDiagramGraphTest
+{
+    private SequenceDiagramGraph graph;
+
+    private ActivationBarNode caller;
+
+    private LifelineNode createdLifeline;
+
+    private ActivationBarNode lowestBar;
+
+    @Before
+    public void setUp() throws Exception {
+        graph = new SequenceDiagramGraph();
+        LifelineNode callerLifeline = new LifelineNode();
+        createdLifeline = new LifelineNode();
+        LifelineNode otherLifeline = new LifelineNode();
+        assertTrue(graph.addNode(callerLifeline, new Point2D.Double(50, 50)));
+        assertTrue(graph.addNode(createdLifeline, new Point2D.Double(300, 50)));
+        assertTrue(graph.addNode(otherLifeline, new Point2D.Double(550, 50)));
+        caller = new ActivationBarNode();
+        assertTrue(graph.addNode(caller, new Point2D.Double(callerLifeline.getBounds().getCenterX(), 100)));
+        lowestBar = new ActivationBarNode();
+        assertTrue(graph.addNode(lowestBar, new Point2D.Double(otherLifeline.getBounds().getCenterX(), 100)));
+        assertTrue(graph.connect(new SynchronousCallEdge(), caller, new Point2D.Double(5, 8), createdLifeline,
+                new Point2D.Double(10, 10), null));
+    }
+
+    @Test
+    public void testCreatedLifelineIsFoundWhereItsCallerMoved() throws Exception {
+        moveBy(caller, 150);
+        // The lowest bar keeps the lifelines drawn down to the same ordinate when the caller moves up
+        moveBy(lowestBar, 600);
+        graph.getLifelinesMaxY();
+        Point2D header = createdLifeline.getLocationOnGraph();
+        assertSame(createdLifeline, graph.findNode(new Point2D.Double(header.getX() + 10, header.getY() + 5)));
+
+        moveBy(caller, -100);
+        Point2D newHeader = createdLifeline.getLocationOnGraph();
+        assertEquals(header.getY() - 100, newHeader.getY(), 0.01);
+        INode found = graph.findNode(new Point2D.Double(newHeader.getX() + 10, newHeader.getY() + 5));
+        assertSame(createdLifeline, found);
+    }
+
+    @Test
+    public void testCreatedLifelineIsReportedMovedWithItsCaller() throws Exception {
+        final List<GraphChange> changes = new ArrayList<GraphChange>();
+        graph.addGraphListener(new IGraphListener()
+        {
+            @Override
+            public void onGraphChanged(List<GraphChange> someChanges)
+            {
+                changes.addAll(someChanges);
+            }
+        });
+        moveBy(caller, 50);
+        boolean lifelineMoved = false;
+        for (GraphChange aChange : changes)
+        {
+            lifelineMoved |= aChange.getType() == GraphChange.Type.NODE_MOVED && aChange.getNode() == createdLifeline;
+        }
+        assertTrue(lifelineMoved);
+    }
+
+    private void moveBy(INode node, double dy)
+    {
+        Point2D location = node.getLocation();
+        node.setLocation(new Point2D.Double(location.getX(), location.getY() + dy));
+    }
+}
@@ -38,13 +38,13 @@ public class CircularFinalStateNode extends AbstractNode
     public CircularFinalStateNode()
     {
         super();
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected CircularFinalStateNode(CircularFinalStateNode node) throws CloneNotSupportedException
     {
         super(node);
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
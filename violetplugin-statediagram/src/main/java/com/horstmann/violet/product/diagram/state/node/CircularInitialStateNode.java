@@ -38,13 +38,13 @@ public class CircularInitialStateNode extends AbstractNode
     public CircularInitialStateNode()
     {
         super();
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected CircularInitialStateNode(CircularInitialStateNode node) throws CloneNotSupportedException
     {
         super(node);
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
@@ -44,14 +44,14 @@ public class ExternalSystemEntryPointNode extends ColorableNode
 		name = new SingleLineText();
 		name.setAlignment(LineText.CENTER);
 		name.setPadding(5,5,5,5);
-		createContentStructure();
+		buildContentStructure();
 	}
 
 	protected ExternalSystemEntryPointNode(ExternalSystemEntryPointNode node) throws CloneNotSupportedException
 	{
 		super(node);
 		name = node.name.clone();
-		createContentStructure();
+		buildContentStructure();
 	}
 
 	@Override
@@ -51,14 +51,14 @@ public class ExternalSystemExitPointNode extends ColorableNode
 		name = new SingleLineText();
 		name.setAlignment(LineText.CENTER);
 		name.setPadding(5,5,5,5);
-		createContentStructure();
+		buildContentStructure();
 	}
 
 	protected ExternalSystemExitPointNode(ExternalSystemExitPointNode node) throws CloneNotSupportedException
 	{
 		super(node);
 		name = node.name.clone();
-		createContentStructure();
+		buildContentStructure();
 	}
 
 	@Override
@@ -52,7 +52,7 @@ public class StateNode extends ColorableNode
         name.setAlignment(LineText.CENTER);
         onEntry = new MultiLineText(entryConverter);
         onExit = new MultiLineText(exitConverter);
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected StateNode(StateNode node) throws CloneNotSupportedException
@@ -61,7 +61,7 @@ public class StateNode extends ColorableNode
         name = node.name.clone();
         onEntry = node.onEntry.clone();
         onExit = node.onExit.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
@@ -91,14 +91,14 @@ public class ActorNode extends ColorableNode
         name = new SingleLineText();
         name.setAlignment(LineText.CENTER);
         name.setPadding(10,5,5,5);
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected ActorNode(ActorNode node) throws CloneNotSupportedException
     {
         super(node);
         name = node.name.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
@@ -50,14 +50,14 @@ public class UseCaseNode extends ColorableNode
 
         name = new SingleLineText();
         name.setAlignment(LineText.CENTER);
-        createContentStructure();
+        buildContentStructure();
     }
 
     protected UseCaseNode(UseCaseNode node) throws CloneNotSupportedException
     {
         super(node);
         name = node.name.clone();
-        createContentStructure();
+        buildContentStructure();
     }
 
     @Override
@@ -138,6 +138,15 @@ public class ViewMenu extends JMenu
             }
         });
 
+        showPerformanceItem.addActionListener(new ActionListener()
+        {
+            public void actionPerformed(ActionEvent event)
+            {
+                performShowPerformance();
+            }
+        });
+        this.add(showPerformanceItem);
+
         this.addMenuListener(new MenuListener()
         {
             public void menuSelected(MenuEvent event)
@@ -146,6 +155,7 @@ public class ViewMenu extends JMenu
                 IWorkspace activeWorkspace = mainFrame.getActiveWorkspace();
                 IEditorPart activeEditor = activeWorkspace.getEditorPart();
                 hideGridItem.setSelected(!activeEditor.getGrid().isVisible());
+                showPerformanceItem.setSelected(activeEditor.isPerformanceHudVisible());
             }
 
             public void menuDeselected(MenuEvent event)
@@ -270,6 +280,16 @@ public class ViewMenu extends JMenu
         editorPart.getSwingComponent().repaint();
     }
 
+    /**
+     * Shows or hides the time spent painting the active diagram, depending on the checkbox menu item
+     */
+    private void performShowPerformance()
+    {
+        if (mainFrame.getWorkspaceList().size() == 0) return;
+        IWorkspace workspace = mainFrame.getActiveWorkspace();
+        workspace.getEditorPart().setPerformanceHudVisible(showPerformanceItem.isSelected());
+    }
+
     /**
      * Performs look and feel change
      * 
@@ -310,6 +330,9 @@ public class ViewMenu extends JMenu
     @ResourceBundleBean(key = "view.hide_grid")
     private JCheckBoxMenuItem hideGridItem;
 
+    @ResourceBundleBean(key = "view.show_performance")
+    private JCheckBoxMenuItem showPerformanceItem;
+
     @ResourceBundleBean(key = "view.change_laf")
     private JMenu changeLookAndFeelMenu;
 